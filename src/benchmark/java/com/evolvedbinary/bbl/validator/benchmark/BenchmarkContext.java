@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.benchmark;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.util.Map;
+
+/**
+ * Starts the application for a benchmark.
+ */
+final class BenchmarkContext {
+
+    private static final String DEFAULT_SCHEMA_DIRECTORY = "src/main/resources/schemas";
+
+    private BenchmarkContext() {
+    }
+
+    private static Map<String, Object> properties() {
+        return Map.of(
+                "schema.directory", System.getProperty("schema.directory", DEFAULT_SCHEMA_DIRECTORY),
+                // every iteration validates the same CSV, which must not be answered from the cache
+                "validation.result-cache.enabled", false,
+                "micronaut.server.port", -1
+        );
+    }
+
+    /**
+     * Starts the application without its HTTP server.
+     *
+     * @return the application context
+     */
+    static ApplicationContext start() {
+        return ApplicationContext.run(properties());
+    }
+
+    /**
+     * Starts the application with its HTTP server on a random port.
+     *
+     * @return the HTTP server
+     */
+    static EmbeddedServer startServer() {
+        return ApplicationContext.run(EmbeddedServer.class, properties());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.benchmark;
+
+import com.evolvedbinary.bbl.validator.service.CompiledSchema;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Generates CSV files of any number of rows for each of the bundled schemas.
+ *
+ * The rows are intended to be valid against the schema, so that the benchmarks measure
+ * a full validation pass rather than the cost of collecting failures.
+ */
+final class CsvGenerator {
+
+    static final String CONCAT = "concat";
+    static final String ADM_362 = "ADM_362-technical-acquisition-with-minimal-transcription";
+    static final String THUNDER_STONE = "thunder-stone-sample-csvs";
+
+    private static final String[] MONTHS = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+
+    private CsvGenerator() {
+    }
+
+    /**
+     * Writes a CSV file for a schema.
+     *
+     * @param schema the schema the CSV file is for
+     * @param rows the number of rows, excluding the header
+     * @param file the file to write
+     * @throws IOException if the file could not be written
+     */
+    static void generate(final CompiledSchema schema, final int rows, final Path file) throws IOException {
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            final List<String> columnNames = schema.getColumnNames();
+            if (!columnNames.isEmpty()) {
+                writer.write(String.join(",", columnNames));
+                writer.write('\n');
+            }
+            final StringBuilder row = new StringBuilder(512);
+            for (int i = 0; i < rows; i++) {
+                row.setLength(0);
+                appendRow(schema.getId(), i, row);
+                row.append('\n');
+                writer.append(row);
+            }
+        }
+    }
+
+    /**
+     * Generates CSV content for a schema in memory.
+     *
+     * @param schema the schema the CSV content is for
+     * @param rows the number of rows, excluding the header
+     * @return the CSV content
+     */
+    static String generate(final CompiledSchema schema, final int rows) {
+        final StringBuilder content = new StringBuilder(rows * 64);
+        final List<String> columnNames = schema.getColumnNames();
+        if (!columnNames.isEmpty()) {
+            content.append(String.join(",", columnNames)).append('\n');
+        }
+        for (int i = 0; i < rows; i++) {
+            appendRow(schema.getId(), i, content);
+            content.append('\n');
+        }
+        return content.toString();
+    }
+
+    private static void appendRow(final String schemaId, final int i, final StringBuilder row) {
+        switch (schemaId) {
+            case CONCAT -> row.append("row").append(',').append(i).append(',').append("row").append(i);
+            case ADM_362 -> appendAdm362Row(i, row);
+            default -> row.append(i).append(",Company ").append(i).append(",1 High Street,City,State,").append(10000 + i % 90000)
+                    .append(",Country,555-").append(1000 + i % 9000);
+        }
+    }
+
+    /**
+     * A volume row, i.e. one without an ordinal, which needs only the transcription to be valid
+     * rather than an image file to exist and be checksummed.
+     */
+    private static void appendAdm362Row(final int i, final StringBuilder row) {
+        final int piece = i % 69720 + 1;
+        final int item = i / 69720 + 1;
+        row.append("ADM362B001,ADM,362,").append(piece).append(',').append(item);
+        // ordinal, file_uuid, file_path, file_checksum, resource_uri and the 25 scan and image columns are empty
+        row.append(",".repeat(30));
+        // QA-code, comments and transcribed_volume_number are empty
+        row.append(",,,");
+        final int day = i % 28 + 1;
+        row.append(',').append(day < 10 ? "0" : "").append(day)
+                .append(',').append(MONTHS[i % 12])
+                .append(',').append(1850 + i % 65)
+                .append(",J").append(i % 999999 + 1);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.benchmark;
+
+import com.evolvedbinary.bbl.validator.service.CsvValidationService;
+import com.evolvedbinary.bbl.validator.service.SchemaService;
+import com.evolvedbinary.bbl.validator.service.ValidationOptions;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CsvValidationService#validateCsvFile(Path, String, ValidationOptions)}, i.e. the CSV Validator
+ * engine itself, for each bundled schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvValidationBenchmark {
+
+    @Param({CsvGenerator.CONCAT, CsvGenerator.ADM_362, CsvGenerator.THUNDER_STONE})
+    String schemaId;
+
+    @Param({"1000", "100000", "10000000"})
+    int rows;
+
+    private ApplicationContext context;
+    private CsvValidationService csvValidationService;
+    private ValidationOptions options;
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        csvValidationService = context.getBean(CsvValidationService.class);
+        options = csvValidationService.resolveOptions(null, null);
+
+        csvFile = Files.createTempFile("bbl-validator-benchmark", ".csv");
+        CsvGenerator.generate(context.getBean(SchemaService.class).getCompiledSchema(schemaId), rows, csvFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        context.close();
+    }
+
+    @Benchmark
+    public CsvValidationService.ValidationResult validateCsvFile() {
+        return csvValidationService.validateCsvFile(csvFile, schemaId, options);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.benchmark;
+
+import com.evolvedbinary.bbl.validator.service.FileDownloadService;
+import com.evolvedbinary.bbl.validator.service.SchemaService;
+import com.evolvedbinary.bbl.validator.service.SpooledFile;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FileDownloadService#saveContentToTemp(String)}, i.e. spooling and hashing CSV content.
+ *
+ * As the content is held in memory as a String, the largest size is not benchmarked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileDownloadBenchmark {
+
+    @Param({CsvGenerator.CONCAT, CsvGenerator.ADM_362, CsvGenerator.THUNDER_STONE})
+    String schemaId;
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private ApplicationContext context;
+    private FileDownloadService fileDownloadService;
+    private String csvContent;
+    private SpooledFile spooledFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        fileDownloadService = context.getBean(FileDownloadService.class);
+        csvContent = CsvGenerator.generate(context.getBean(SchemaService.class).getCompiledSchema(schemaId), rows);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTempFile() throws IOException {
+        if (spooledFile != null) {
+            Files.deleteIfExists(spooledFile.path());
+            spooledFile = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SpooledFile saveContentToTemp() throws IOException {
+        spooledFile = fileDownloadService.saveContentToTemp(csvContent);
+        return spooledFile;
+    }
+}
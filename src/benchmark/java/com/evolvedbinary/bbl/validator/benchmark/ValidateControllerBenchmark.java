@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.benchmark;
+
+import com.evolvedbinary.bbl.validator.service.SchemaService;
+import io.micronaut.runtime.server.EmbeddedServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full path of a request to validate a CSV file uploaded in the request body,
+ * from the HTTP client through the server, spooling, validation and serialising the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidateControllerBenchmark {
+
+    @Param({CsvGenerator.CONCAT, CsvGenerator.ADM_362, CsvGenerator.THUNDER_STONE})
+    String schemaId;
+
+    @Param({"1000", "100000", "10000000"})
+    int rows;
+
+    private EmbeddedServer server;
+    private HttpClient client;
+    private URI validateUri;
+    private Path csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = BenchmarkContext.startServer();
+        client = HttpClient.newHttpClient();
+        validateUri = URI.create(server.getURL() + "/validate?schema-id=" + URLEncoder.encode(schemaId, StandardCharsets.UTF_8));
+
+        csvFile = Files.createTempFile("bbl-validator-benchmark", ".csv");
+        CsvGenerator.generate(server.getApplicationContext().getBean(SchemaService.class).getCompiledSchema(schemaId), rows, csvFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        Files.deleteIfExists(csvFile);
+        server.close();
+    }
+
+    @Benchmark
+    public String validateCsv() throws IOException, InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(validateUri)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofFile(csvFile))
+                .build();
+        final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Validation request failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
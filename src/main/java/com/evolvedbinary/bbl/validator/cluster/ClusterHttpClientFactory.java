@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.cluster;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Creates the single, long-lived, HTTP Client which is used for forwarding
+ * validations to the other nodes of the cluster.
+ *
+ * It is kept apart from the client used for downloading CSV files, as a forwarded
+ * validation waits for the whole validation to be performed by the other node.
+ */
+@Factory
+public class ClusterHttpClientFactory {
+
+    public static final String CLUSTER = "cluster";
+
+    @Named(CLUSTER)
+    @Singleton
+    public PoolingHttpClientConnectionManager clusterConnectionManager(
+            @Value("${cluster.http.max-total:20}") final int maxTotal,
+            @Value("${cluster.http.max-per-route:10}") final int maxPerRoute,
+            @Value("${cluster.http.connect-timeout:5000}") final long connectTimeout,
+            @Value("${cluster.http.validate-after-inactivity:15000}") final long validateAfterInactivity) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity))
+                .build());
+        return connectionManager;
+    }
+
+    /**
+     * The HTTP Client owns the connection manager, so closing the client
+     * when the application context is closed also closes the pool.
+     */
+    @Named(CLUSTER)
+    @Singleton
+    @Bean(preDestroy = "close")
+    public CloseableHttpClient clusterHttpClient(
+            @Named(CLUSTER) final PoolingHttpClientConnectionManager connectionManager,
+            @Value("${cluster.http.response-timeout:300000}") final long responseTimeout,
+            @Value("${cluster.http.connection-request-timeout:3000}") final long connectionRequestTimeout,
+            @Value("${cluster.http.evict-idle-after:30000}") final long evictIdleAfter) {
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                .build();
+
+        return HttpClients
+                .custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(evictIdleAfter))
+                .evictExpiredConnections()
+                .build();
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.cluster;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.service.SpooledFile;
+import com.evolvedbinary.bbl.validator.service.ValidationOptions;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.FileEntity;
+import org.apache.hc.core5.net.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Routes validations across a cluster of validator nodes.
+ *
+ * Each CSV file is owned by one node of the cluster, chosen by consistent hashing of the
+ * SHA-256 of its content, so that validating the same file again, from whichever node
+ * receives it, is answered from the validation result cache of its owner. A node which
+ * receives a CSV file that it does not own forwards it to its owner, and only falls back
+ * to validating it itself if the owner cannot be reached.
+ *
+ * The nodes of the cluster are configured statically, and every node should be configured
+ * with the same list, so that they all agree on the owner of a file.
+ */
+@Singleton
+public class ClusterService {
+
+    /**
+     * The header which marks a validation as forwarded from another node, which the receiving
+     * node must then perform itself rather than forward again.
+     */
+    public static final String FORWARDED_HEADER = "X-BBLVALIDATOR-FORWARDED";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterService.class);
+
+    private final @Nullable String self;
+    private final @Nullable ConsistentHashRing ring;
+    private final List<String> nodeHosts = new ArrayList<>();
+
+    /**
+     * The addresses of the nodes of the cluster, resolved at startup and refreshed every
+     * {@code cluster.resolve-interval}, so that a request is never held up resolving them.
+     */
+    private volatile Set<InetAddress> nodeAddresses = Collections.emptySet();
+    private final CloseableHttpClient httpClient;
+    private final JsonMapper jsonMapper;
+
+    @Inject
+    public ClusterService(@Value("${cluster.enabled:false}") final boolean enabled,
+                          @Nullable @Value("${cluster.self}") final String self,
+                          @Nullable @Property(name = "cluster.nodes") final List<String> nodes,
+                          @Value("${cluster.virtual-nodes:128}") final int virtualNodes,
+                          @Named(ClusterHttpClientFactory.CLUSTER) final CloseableHttpClient httpClient,
+                          final JsonMapper jsonMapper) {
+        this.self = self != null ? normalize(self) : null;
+        this.httpClient = httpClient;
+        this.jsonMapper = jsonMapper;
+
+        final List<String> normalizedNodes = new ArrayList<>();
+        if (nodes != null) {
+            for (final String node : nodes) {
+                if (!node.isBlank()) {
+                    normalizedNodes.add(normalize(node));
+                }
+            }
+        }
+        if (!enabled) {
+            this.ring = null;
+        } else if (normalizedNodes.isEmpty()) {
+            LOG.warn("Clustering is enabled, but no cluster nodes are configured, validating locally");
+            this.ring = null;
+        } else {
+            if (this.self == null || !normalizedNodes.contains(this.self)) {
+                LOG.info("This node is not one of the cluster nodes, all validations will be forwarded");
+            }
+            this.ring = new ConsistentHashRing(normalizedNodes, virtualNodes);
+            for (final String node : normalizedNodes) {
+                final String host = URI.create(node).getHost();
+                if (host != null) {
+                    nodeHosts.add(host);
+                }
+            }
+            LOG.info("Routing validations across cluster nodes: {}", normalizedNodes);
+            resolveNodes();
+        }
+    }
+
+    /**
+     * Resolves the addresses of the nodes of the cluster.
+     */
+    @Scheduled(fixedDelay = "${cluster.resolve-interval:1m}")
+    void resolveNodes() {
+        if (nodeHosts.isEmpty()) {
+            return;
+        }
+        final Set<InetAddress> addresses = new HashSet<>();
+        for (final String host : nodeHosts) {
+            try {
+                Collections.addAll(addresses, InetAddress.getAllByName(host));
+            } catch (final UnknownHostException e) {
+                LOG.warn("Unable to resolve cluster node: {}", host);
+            }
+        }
+        nodeAddresses = Set.copyOf(addresses);
+    }
+
+    private static String normalize(final String node) {
+        final String trimmed = node.strip();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * @return true if validations are routed across a cluster
+     */
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    /**
+     * Returns whether an address is that of a node of the cluster, so that a request from it
+     * which claims to be forwarded can be trusted to be.
+     *
+     * @param address the address a request was received from
+     * @return true if the address is that of a node of the cluster, false if not, or if clustering is disabled
+     */
+    public boolean isNode(@Nullable final InetAddress address) {
+        if (ring == null || address == null) {
+            return false;
+        }
+        return nodeAddresses.contains(address);
+    }
+
+    /**
+     * Returns the node which owns a CSV file, if it is not this node.
+     *
+     * @param sha256 the SHA-256 hash of the content of the CSV file
+     * @return the base URL of the owning node, or null if this node owns the file or clustering is disabled
+     */
+    public @Nullable String ownerOf(final String sha256) {
+        if (ring == null) {
+            return null;
+        }
+        final String owner = ring.ownerOf(sha256);
+        return owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Forwards the validation of a CSV file to the node which owns it.
+     *
+     * @param owner the base URL of the owning node
+     * @param csvFile the CSV file
+     * @param schemaId the id of the schema to validate against
+     * @param options the options to validate with
+     * @return the validation response of the owning node, or null if the validation could not be forwarded
+     */
+    public @Nullable ValidationResponse forward(final String owner, final SpooledFile csvFile, final String schemaId,
+            final ValidationOptions options) {
+        final HttpPost httpPost;
+        try {
+            httpPost = new HttpPost(new URIBuilder(owner + "/validate")
+                    .addParameter("schema-id", schemaId)
+                    .addParameter("fail-fast", String.valueOf(options.failFast()))
+                    .addParameter("max-errors", String.valueOf(options.maxErrors()))
+                    .build());
+        } catch (final URISyntaxException e) {
+            LOG.warn("Invalid cluster node: {}", owner, e);
+            return null;
+        }
+        httpPost.setHeader(FORWARDED_HEADER, "true");
+        httpPost.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+        httpPost.setEntity(new FileEntity(csvFile.path().toFile(), ContentType.create("text/csv")));
+
+        try (final CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            final byte[] body = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : null;
+            if (response.getCode() != HttpStatus.SC_OK || body == null) {
+                LOG.warn("Cluster node {} could not validate CSV file {}: HTTP {}", owner, csvFile.sha256(), response.getCode());
+                return null;
+            }
+            return jsonMapper.readValue(body, ValidationResponse.class);
+        } catch (final IOException e) {
+            LOG.warn("Unable to forward validation of CSV file {} to cluster node {}: {}", csvFile.sha256(), owner, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.cluster;
+
+import net.jcip.annotations.Immutable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to nodes by consistent hashing.
+ *
+ * Each node is placed on the ring at many points, its virtual nodes, and a key is owned by the node
+ * at the first point at or after the hash of the key. Keys are therefore spread evenly across the
+ * nodes, and adding or removing a node only moves the keys which that node gains or loses.
+ */
+@Immutable
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final NavigableMap<Long, String> ring;
+
+    /**
+     * @param nodes the nodes, which must not be empty
+     * @param virtualNodes the number of points at which each node is placed on the ring
+     */
+    public ConsistentHashRing(final List<String> nodes, final int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A ring must have at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        final TreeMap<Long, String> points = new TreeMap<>();
+        for (final String node : this.nodes) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                points.put(hash(node + '#' + i), node);
+            }
+        }
+        this.ring = points;
+    }
+
+    /**
+     * @return the nodes of the ring
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the node which owns a key.
+     *
+     * @param key the key, e.g. the SHA-256 digest of a CSV file
+     * @return the owning node
+     */
+    public String ownerOf(final String key) {
+        final Map.Entry<Long, String> point = ring.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(final String value) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(value.getBytes(StandardCharsets.UTF_8))).getLong();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.executor.ExecutorSaturatedException;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Error;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Global error handlers which map exceptions raised outside of a controller
+ * method onto an {@link ErrorResponse}.
+ */
+@Controller
+public class ErrorController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ErrorController.class);
+
+    /**
+     * Handles requests which could not be admitted to the validation executor.
+     *
+     * @param request the rejected request
+     * @param e the rejection
+     * @return a 503 response with a Retry-After header
+     */
+    @Error(global = true, exception = ExecutorSaturatedException.class)
+    public HttpResponse<ErrorResponse> serverBusy(final HttpRequest<?> request, final ExecutorSaturatedException e) {
+        LOG.trace("Rejected request, validation executor is saturated: {}", request.getPath());
+        return HttpResponse.<ErrorResponse>status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter()))
+                .body(new ErrorResponse(ErrorResponse.Code.SERVER_BUSY, "Server is busy, please retry later"));
+    }
+}
@@ -17,52 +17,213 @@ package com.evolvedbinary.bbl.validator.controller;
 
 import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
 import com.evolvedbinary.bbl.validator.dto.SchemaInfo;
+import com.evolvedbinary.bbl.validator.io.Compression;
+import com.evolvedbinary.bbl.validator.io.PrecompressedContent;
+import com.evolvedbinary.bbl.validator.service.CompiledSchema;
 import com.evolvedbinary.bbl.validator.service.SchemaService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.json.JsonMapper;
 import jakarta.inject.Inject;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
+/**
+ * Serves the schemas, and the list of schemas.
+ *
+ * Responses carry a strong ETag, derived from the content of the schemas when they were loaded,
+ * so that a client can revalidate with If-None-Match and receive a 304 if nothing has changed.
+ * Bodies are compressed once, rather than for each response.
+ */
 @Controller("/schema")
 public class SchemaController {
     public static final MediaType CSV_SCHEMA_MEDIA_TYPE = MediaType.of("text/csv-schema");
 
     @Inject
     SchemaService schemaService;
+    @Inject
+    JsonMapper jsonMapper;
+
+    @Value("${schema.http.cache-control:public, max-age=60}")
+    String cacheControl;
+
+    /**
+     * The public base URL of the server, e.g. {@code https://validator.example.com}, from which the
+     * URLs in the list of schemas are built. If it is not set they are built from the Host header.
+     */
+    @Nullable
+    @Value("${schema.http.base-url}")
+    String baseUrl;
+
+    /**
+     * The serialized list of schemas, as of a hash of the schemas. It is only kept when the base URL
+     * is configured, as otherwise it depends upon the Host header, which is chosen by the client.
+     */
+    private record SchemaList(String schemasHash, PrecompressedContent content) {
+    }
+
+    private volatile SchemaList schemaList;
 
     @Get
     @Produces(MediaType.APPLICATION_JSON)
-    public List<SchemaInfo> listSchemas(final HttpRequest<?> request) {
-        final String host = request.getHeaders().get("Host");
+    public HttpResponse<?> listSchemas(final HttpRequest<?> request) throws IOException {
         final String path = request.getPath().replace("/schema", "/schema/");
-        final String protocol = request.isSecure() ? "https://" : "http://";
-        final String url = protocol + host + path;
+        final String schemasHash = schemaService.getSchemasHash();
+        if (baseUrl == null) {
+            final String host = request.getHeaders().get("Host");
+            final String protocol = request.isSecure() ? "https://" : "http://";
+            return cacheable(request, schemaList(schemasHash, protocol + host + path), MediaType.APPLICATION_JSON_TYPE);
+        }
 
-        return schemaService.listSchemas().stream()
+        SchemaList list = schemaList;
+        if (list == null || !list.schemasHash().equals(schemasHash)) {
+            list = new SchemaList(schemasHash, schemaList(schemasHash, baseUrl.replaceAll("/+$", "") + path));
+            schemaList = list;
+        }
+        return cacheable(request, list.content(), MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    private PrecompressedContent schemaList(final String schemasHash, final String url) throws IOException {
+        final List<SchemaInfo> schemas = schemaService.listSchemas().stream()
                 .map(schema -> new SchemaInfo(schema.getId(), schema.getName(), schema.getVersion(), schema.getDate(), url + schema.getId(), schema.getDescription()))
                 .collect(Collectors.toList());
+        // the list holds URLs built from the base URL, so its ETag must differ with it
+        return PrecompressedContent.of(jsonMapper.writeValueAsBytes(schemas), listHash(schemasHash, url));
+    }
+
+    static String listHash(final String schemasHash, final String baseUrl) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(schemasHash.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(baseUrl.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     @Get("/{schema-id}")
     @Produces("text/csv-schema")
-    public HttpResponse<Object> getSchema(@PathVariable("schema-id") final String schemaId) {
-        final String schema = schemaService.getSchema(schemaId);
-        if (schema == null) {
+    public HttpResponse<?> getSchema(final HttpRequest<?> request, @PathVariable("schema-id") final String schemaId) {
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema(schemaId);
+        if (compiledSchema == null) {
             return HttpResponse
                     .notFound()
                     .contentType(MediaType.APPLICATION_JSON_TYPE)
                     .body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + schemaId));
         }
-        return HttpResponse
-                .ok()
-                .contentType(CSV_SCHEMA_MEDIA_TYPE)
-                .body(schema);
+        return cacheable(request, compiledSchema.getPrecompressedContent(), CSV_SCHEMA_MEDIA_TYPE);
+    }
+
+    /**
+     * Responds with content, or with 304 Not Modified if the client already has it, in the
+     * best compression which the client accepts.
+     */
+    private HttpResponse<?> cacheable(final HttpRequest<?> request, final PrecompressedContent content, final MediaType contentType) {
+        final Compression compression = preferredCompression(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING), content);
+        final String contentEncoding = compression.name().toLowerCase(Locale.ROOT);
+
+        final MutableHttpResponse<?> response;
+        if (matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), content.getHash())) {
+            response = HttpResponse.notModified();
+        } else {
+            response = HttpResponse.ok(content.getContent(compression)).contentType(contentType);
+            if (compression != Compression.NONE) {
+                response.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            }
+        }
+
+        // a strong ETag identifies the exact bytes, so each compression has its own
+        final String etag = compression == Compression.NONE ? content.getHash() : content.getHash() + '-' + contentEncoding;
+        return response
+                .header(HttpHeaders.ETAG, '"' + etag + '"')
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    static Compression preferredCompression(@Nullable final String acceptEncoding, final PrecompressedContent content) {
+        if (acceptEncoding == null) {
+            return Compression.NONE;
+        }
+        boolean gzip = false;
+        boolean zstd = false;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            if (isRejected(parameters)) {
+                continue;
+            }
+            switch (parameters[0].strip().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip", "*" -> gzip = true;
+                case "zstd" -> zstd = true;
+                default -> { }
+            }
+        }
+        if (zstd && content.getContent(Compression.ZSTD) != null) {
+            return Compression.ZSTD;
+        }
+        if (gzip && content.getContent(Compression.GZIP) != null) {
+            return Compression.GZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Returns whether a content coding is rejected with a quality value of zero, e.g. {@code gzip;q=0}.
+     */
+    private static boolean isRejected(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].strip();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (final NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether an If-None-Match header matches the content with the given hash, in any compression.
+     */
+    static boolean matchesETag(@Nullable final String ifNoneMatch, final String hash) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String etag : ifNoneMatch.split(",")) {
+            etag = etag.strip();
+            if (etag.equals("*")) {
+                return true;
+            }
+            if (etag.startsWith("W/")) {
+                // If-None-Match uses the weak comparison
+                etag = etag.substring(2);
+            }
+            if (etag.length() >= 2 && etag.charAt(0) == '"' && etag.charAt(etag.length() - 1) == '"') {
+                etag = etag.substring(1, etag.length() - 1);
+            }
+            if (etag.equals(hash) || (etag.startsWith(hash) && etag.charAt(hash.length()) == '-')) {
+                return true;
+            }
+        }
+        return false;
     }
 }
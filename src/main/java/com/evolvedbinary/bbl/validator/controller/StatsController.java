@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ConnectionPoolStats;
+import com.evolvedbinary.bbl.validator.service.FileDownloadService;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Produces;
+import jakarta.inject.Inject;
+import org.apache.hc.core5.pool.PoolStats;
+
+@Controller("/stats")
+public class StatsController {
+
+    @Inject
+    FileDownloadService fileDownloadService;
+
+    @Get("/download-pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ConnectionPoolStats getDownloadPoolStats() {
+        final PoolStats poolStats = fileDownloadService.getConnectionPoolStats();
+        return new ConnectionPoolStats(poolStats.getLeased(), poolStats.getPending(), poolStats.getAvailable(), poolStats.getMax());
+    }
+}
@@ -15,128 +15,520 @@
  */
 package com.evolvedbinary.bbl.validator.controller;
 
+import com.evolvedbinary.bbl.validator.cluster.ClusterService;
+import com.evolvedbinary.bbl.validator.dto.BatchValidationForm;
+import com.evolvedbinary.bbl.validator.dto.BatchValidationResult;
 import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
 import com.evolvedbinary.bbl.validator.dto.ResponseObject;
 import com.evolvedbinary.bbl.validator.dto.ValidationForm;
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
 import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.executor.BoundedExecutorService;
+import com.evolvedbinary.bbl.validator.executor.ValidationExecutorFactory;
+import com.evolvedbinary.bbl.validator.io.Compression;
+import com.evolvedbinary.bbl.validator.io.PublisherInputStream;
+import com.evolvedbinary.bbl.validator.job.ValidationJobService;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics.InputMode;
 import com.evolvedbinary.bbl.validator.service.CsvValidationService;
+import com.evolvedbinary.bbl.validator.service.DownloadProgress;
 import com.evolvedbinary.bbl.validator.service.FileDownloadService;
+import com.evolvedbinary.bbl.validator.service.FileTooLargeException;
 import com.evolvedbinary.bbl.validator.service.SchemaService;
+import com.evolvedbinary.bbl.validator.service.SpoolDirectory;
+import com.evolvedbinary.bbl.validator.service.SpoolFullException;
+import com.evolvedbinary.bbl.validator.service.SpooledFile;
+import com.evolvedbinary.bbl.validator.service.ValidationOptions;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Consumes;
 import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Part;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller("/validate")
+@ExecuteOn(ValidationExecutorFactory.VALIDATION)
 public class ValidateController {
 
     private static final Logger LOG = LoggerFactory.getLogger(ValidateController.class);
+
+    /**
+     * The maximum number of chunks of a streamed request body to buffer ahead of writing them out.
+     */
+    private static final int BODY_PREFETCH_CHUNKS = 16;
+
+    /**
+     * How many times, and after how long at first, an item of a batch which the saturated
+     * validation executor rejected is retried, before it is reported as {@code SERVER_BUSY}.
+     */
+    private static final int BATCH_ITEM_RETRIES = 5;
+    private static final Duration BATCH_ITEM_RETRY_BACKOFF = Duration.ofMillis(250);
+
+    /**
+     * Newline delimited JSON, see <a href="https://github.com/ndjson/ndjson-spec">ndjson-spec</a>.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON_TYPE = MediaType.of(APPLICATION_NDJSON);
+
     @Inject
     FileDownloadService fileDownloadService;
     @Inject
     CsvValidationService csvValidationService;
     @Inject
     SchemaService schemaService;
+    @Inject
+    @Named(ValidationExecutorFactory.VALIDATION)
+    BoundedExecutorService validationExecutor;
+    @Inject
+    JsonMapper jsonMapper;
+    @Inject
+    ValidationJobService validationJobService;
+    @Inject
+    ValidationMetrics validationMetrics;
+    @Inject
+    ClusterService clusterService;
+    @Inject
+    SpoolDirectory spoolDirectory;
+
+    @Value("${validation.batch.max-size:10000}")
+    int maxBatchSize;
 
     /**
      * Handles form URL encoded validation requests.
      *
+     * @param request the HTTP request
      * @param form validation form
-     * @return validation response
+     * @param failFast true to stop validating at the first failure
+     * @param maxErrors the maximum number of failures to report, limited by the server's maximum
+     * @param async true to validate asynchronously and return a job
+     * @return validation response, or the validation job if async
      */
     @Post
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
-    public HttpResponse<ResponseObject> validateForm(@Body final ValidationForm form) {
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
+    public HttpResponse<?> validateForm(final HttpRequest<?> request,
+                                        @Body final ValidationForm form,
+                                        @Nullable @QueryValue("fail-fast") final Boolean failFast,
+                                        @Nullable @QueryValue("max-errors") final Integer maxErrors,
+                                        @QueryValue(defaultValue = "false") final boolean async) {
         if (null == schemaService.getSchema(form.schemaId())) {
             return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + form.schemaId()));
         }
+        final boolean streaming = !async && acceptsNdjson(request);
+        final ValidationOptions options = resolveOptions(streaming, failFast, maxErrors);
+        if (async) {
+            return accepted(validationJobService.submit(form.schemaId(), progress -> downloadAndValidateOrError(form.url(), form.schemaId(), InputMode.FORM, options, progress)));
+        }
         try {
-            final Path downloadedFile = fileDownloadService.downloadToTemp(form.url());
-            LOG.trace("File downloaded to: {}", downloadedFile);
-            try {
-                return HttpResponse.ok(performValidation(downloadedFile, form.schemaId()));
-            } finally {
-                Files.delete(downloadedFile);
-            }
+            return ok(streaming, downloadAndValidate(form.url(), form.schemaId(), InputMode.FORM, options, null));
+        } catch (final SpoolFullException e) {
+            return serverBusy(e);
         } catch (final IOException e) {
-            LOG.trace("Failed to download file from URL: {}", form.url());
-            return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NON_RESOLVABLE_URL,"Unable to resolve url : " + form.url()));
+            return HttpResponse.badRequest().body(downloadError(form.url(), e));
         }
     }
 
     /**
      * Handles CSV body + query param validation requests.
      *
+     * The body is streamed chunk by chunk to a temporary file, so that it is never
+     * held in memory in its entirety. A body which is compressed, as declared by its
+     * Content-Encoding or else detected from its magic bytes, is decompressed as it is streamed.
+     *
+     * @param request the HTTP request
      * @param schemaId schema ID
      * @param csvContent CSV content
-     * @return validation response
+     * @param failFast true to stop validating at the first failure
+     * @param maxErrors the maximum number of failures to report, limited by the server's maximum
+     * @param async true to validate asynchronously and return a job
+     * @return validation response, or the validation job if async
      */
     @Post
     @Consumes(MediaType.TEXT_CSV)
-    public HttpResponse<ResponseObject> validateCsv(@QueryValue("schema-id") final String schemaId,
-                                                    @Nullable @Body final String csvContent) {
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
+    public HttpResponse<?> validateCsv(final HttpRequest<?> request,
+                                       @QueryValue("schema-id") final String schemaId,
+                                       @Nullable @Body final Publisher<byte[]> csvContent,
+                                       @Nullable @QueryValue("fail-fast") final Boolean failFast,
+                                       @Nullable @QueryValue("max-errors") final Integer maxErrors,
+                                       @QueryValue(defaultValue = "false") final boolean async) {
         if (schemaService.getSchema(schemaId) == null) {
             return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + schemaId));
         }
-        if (csvContent == null || csvContent.isEmpty()) {
+        if (csvContent == null) {
             return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NO_CSV,"Empty CSV content"));
         }
+        final String contentEncoding = request.getHeaders().get(HttpHeaders.CONTENT_ENCODING);
+        final Compression compression = Compression.fromContentEncoding(contentEncoding);
+        if (compression == null) {
+            return HttpResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(new ErrorResponse(ErrorResponse.Code.UNSUPPORTED_CONTENT_ENCODING,"Unsupported Content-Encoding: " + contentEncoding));
+        }
+        final boolean streaming = !async && acceptsNdjson(request);
+        final ValidationOptions options = resolveOptions(streaming, failFast, maxErrors);
+        // a CSV file forwarded by another node of the cluster is always validated here
+        final InputMode mode = request.getHeaders().contains(ClusterService.FORWARDED_HEADER) ? InputMode.CLUSTER : InputMode.BODY;
             try {
-                final Path tempFile = fileDownloadService.saveContentToTemp(csvContent);
-                try {
-                    LOG.trace("CSV content saved to: {}", tempFile);
-                    return HttpResponse.ok(performValidation(tempFile, schemaId));
-                } finally {
-                    Files.delete(tempFile);
+                final SpooledFile tempFile;
+                try (final InputStream inputStream = new PublisherInputStream(csvContent, BODY_PREFETCH_CHUNKS)) {
+                    tempFile = fileDownloadService.saveStreamToTemp(inputStream, compression, request.getContentLength());
                 }
+                return validateSpooled(tempFile, schemaId, mode, options, async, streaming);
+            } catch (final SpoolFullException e) {
+                return serverBusy(e);
+            } catch (final FileTooLargeException e) {
+                return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.FILE_TOO_LARGE,"CSV content exceeds the maximum size of " + e.getMaxSize() + " bytes, once decompressed"));
             } catch (final IOException e) {
                 LOG.error("Failed to save CSV content to temp file", e);
                 return HttpResponse.serverError().body(new ErrorResponse(ErrorResponse.Code.UNEXPECTED_ERROR,"Unable to store CSV: " + e.getMessage()));
             }
     }
 
+    /**
+     * Handles multipart file upload + query param validation requests.
+     *
+     * The uploaded file is streamed part by part to a temporary file, so that it is never
+     * held in memory in its entirety. A file which is gzip, zstd or zip compressed is
+     * detected from its magic bytes, and decompressed as it is streamed.
+     *
+     * @param request the HTTP request
+     * @param schemaId schema ID
+     * @param file the uploaded CSV file
+     * @param failFast true to stop validating at the first failure
+     * @param maxErrors the maximum number of failures to report, limited by the server's maximum
+     * @param async true to validate asynchronously and return a job
+     * @return validation response, or the validation job if async
+     */
+    @Post
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
+    public HttpResponse<?> validateUpload(final HttpRequest<?> request,
+                                          @QueryValue("schema-id") final String schemaId,
+                                          @Nullable @Part("file") final StreamingFileUpload file,
+                                          @Nullable @QueryValue("fail-fast") final Boolean failFast,
+                                          @Nullable @QueryValue("max-errors") final Integer maxErrors,
+                                          @QueryValue(defaultValue = "false") final boolean async) {
+        if (schemaService.getSchema(schemaId) == null) {
+            if (file != null) {
+                // an upload which is not read must be discarded, so that the rest of the request is released
+                file.discard();
+            }
+            return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + schemaId));
+        }
+        if (file == null) {
+            return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NO_CSV,"No CSV file uploaded"));
+        }
+        final boolean streaming = !async && acceptsNdjson(request);
+        final ValidationOptions options = resolveOptions(streaming, failFast, maxErrors);
+        try {
+            final SpooledFile tempFile;
+            try (final InputStream inputStream = file.asInputStream()) {
+                tempFile = fileDownloadService.saveStreamToTemp(inputStream, Compression.NONE, request.getContentLength());
+            }
+            return validateSpooled(tempFile, schemaId, InputMode.UPLOAD, options, async, streaming);
+        } catch (final SpoolFullException e) {
+            return serverBusy(e);
+        } catch (final FileTooLargeException e) {
+            return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.FILE_TOO_LARGE,"CSV file exceeds the maximum size of " + e.getMaxSize() + " bytes, once decompressed"));
+        } catch (final IOException e) {
+            LOG.error("Failed to save uploaded CSV file to temp file", e);
+            return HttpResponse.serverError().body(new ErrorResponse(ErrorResponse.Code.UNEXPECTED_ERROR,"Unable to store CSV: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Validates a CSV file which has been received into a temporary file, either now or as a job.
+     *
+     * The temporary file is deleted once it has been validated.
+     */
+    private HttpResponse<?> validateSpooled(final SpooledFile tempFile, final String schemaId, final InputMode mode,
+            final ValidationOptions options, final boolean async, final boolean streaming) {
+        boolean submitted = false;
+        try {
+            if (tempFile.size() == 0) {
+                return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NO_CSV,"Empty CSV content"));
+            }
+            LOG.trace("CSV content saved to: {}", tempFile);
+            if (async) {
+                // ownership of the temp file passes to the job, which deletes it when done
+                final ValidationJob job = validationJobService.submit(schemaId, progress -> {
+                    try {
+                        return performValidation(tempFile, schemaId, mode, options);
+                    } finally {
+                        spoolDirectory.delete(tempFile.path());
+                    }
+                });
+                submitted = true;
+                return accepted(job);
+            }
+            return ok(streaming, performValidation(tempFile, schemaId, mode, options));
+        } finally {
+            if (!submitted) {
+                spoolDirectory.delete(tempFile.path());
+            }
+        }
+    }
+
     /**
      * Handles query params only validation requests.
      *
+     * @param request the HTTP request
      * @param schemaId schema ID
      * @param url URL
-     * @return validation response
+     * @param failFast true to stop validating at the first failure
+     * @param maxErrors the maximum number of failures to report, limited by the server's maximum
+     * @param async true to validate asynchronously and return a job
+     * @return validation response, or the validation job if async
      */
     @Post
     @Consumes(MediaType.ALL)
-    public HttpResponse<ResponseObject> validateParams(@QueryValue("schema-id") final String schemaId,
-                                                       @QueryValue final String url) {
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
+    public HttpResponse<?> validateParams(final HttpRequest<?> request,
+                                          @QueryValue("schema-id") final String schemaId,
+                                          @QueryValue final String url,
+                                          @Nullable @QueryValue("fail-fast") final Boolean failFast,
+                                          @Nullable @QueryValue("max-errors") final Integer maxErrors,
+                                          @QueryValue(defaultValue = "false") final boolean async) {
         if (schemaService.getSchema(schemaId) == null) {
             return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + schemaId));
         }
+        final boolean streaming = !async && acceptsNdjson(request);
+        final ValidationOptions options = resolveOptions(streaming, failFast, maxErrors);
+        if (async) {
+            return accepted(validationJobService.submit(schemaId, progress -> downloadAndValidateOrError(url, schemaId, InputMode.URL, options, progress)));
+        }
         try {
-            final Path downloadedFile = fileDownloadService.downloadToTemp(url);
-            LOG.trace("File downloaded to: {}", downloadedFile);
+            return ok(streaming, downloadAndValidate(url, schemaId, InputMode.URL, options, null));
+        } catch (final SpoolFullException e) {
+            return serverBusy(e);
+        } catch (final IOException e) {
+            return HttpResponse.badRequest().body(downloadError(url, e));
+        }
+    }
+
+    /**
+     * Handles batch validation requests, where many CSV files are validated against one schema.
+     *
+     * The CSV files are downloaded and validated in parallel on the validation executor. By default the
+     * results are returned as a JSON array in the order of the requested URLs. If the client accepts
+     * {@value #APPLICATION_NDJSON}, each result is instead streamed as a line of JSON as soon as it completes.
+     *
+     * @param request the HTTP request
+     * @param form batch validation form
+     * @param failFast true to stop validating at the first failure
+     * @param maxErrors the maximum number of failures to report, limited by the server's maximum
+     * @return a response with the result of validating each CSV file
+     */
+    @Post("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, APPLICATION_NDJSON})
+    public Mono<HttpResponse<?>> validateBatch(final HttpRequest<?> request, @Body final BatchValidationForm form,
+                                               @Nullable @QueryValue("fail-fast") final Boolean failFast,
+                                               @Nullable @QueryValue("max-errors") final Integer maxErrors) {
+        if (schemaService.getSchema(form.schemaId()) == null) {
+            return Mono.just(HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.SCHEMA_NOT_FOUND,"Schema not found with ID: " + form.schemaId())));
+        }
+        final List<String> urls = form.urls();
+        if (urls == null || urls.isEmpty()) {
+            return Mono.just(HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NO_CSV,"No CSV URLs")));
+        }
+        if (urls.size() > maxBatchSize) {
+            return Mono.just(HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.BATCH_TOO_LARGE,"Batch of " + urls.size() + " CSV URLs exceeds the maximum of " + maxBatchSize)));
+        }
+
+        final ValidationOptions options = csvValidationService.resolveOptions(failFast, maxErrors);
+
+        // NOTE: nothing here may block, as the items of the batch are themselves executed on the validation executor
+        final Scheduler scheduler = Schedulers.fromExecutor(validationExecutor);
+        final int parallelism = batchParallelism();
+        final Flux<Integer> indexes = Flux.range(0, urls.size());
+
+        if (acceptsNdjson(request)) {
+            final Flux<byte[]> results = indexes
+                    .flatMap(index -> validateBatchItem(index, urls.get(index), form.schemaId(), options, scheduler), parallelism)
+                    .map(this::toNdjson);
+            return Mono.just(HttpResponse.ok(results).contentType(APPLICATION_NDJSON_TYPE));
+        }
+
+        return indexes
+                .flatMapSequential(index -> validateBatchItem(index, urls.get(index), form.schemaId(), options, scheduler), parallelism)
+                .collectList()
+                .map(HttpResponse::ok);
+    }
+
+    /**
+     * Returns how many items of a batch may be validated at once: no more than the validation
+     * executor runs at once, nor than it can still admit, so that a batch waits for the
+     * executor rather than overrunning it.
+     */
+    private int batchParallelism() {
+        final int capacity = validationExecutor.getMaxConcurrency() + validationExecutor.getQueueDepth() - validationExecutor.getInFlight();
+        return Math.max(1, Math.min(validationExecutor.getMaxConcurrency(), capacity));
+    }
+
+    private static boolean acceptsNdjson(final HttpRequest<?> request) {
+        return request.accept().contains(APPLICATION_NDJSON_TYPE);
+    }
+
+    private ValidationOptions resolveOptions(final boolean streaming, @Nullable final Boolean failFast, @Nullable final Integer maxErrors) {
+        return streaming ? csvValidationService.resolveStreamingOptions(failFast, maxErrors) : csvValidationService.resolveOptions(failFast, maxErrors);
+    }
+
+    /**
+     * Responds with the result of a validation, either as a single JSON object, or if streaming as
+     * {@value #APPLICATION_NDJSON} with a line for each failure followed by a line with the summary.
+     *
+     * When streaming, each line is only serialised as the client reads it, so the response is
+     * never held in memory in its entirety.
+     */
+    private HttpResponse<?> ok(final boolean streaming, final ValidationResponse response) {
+        if (!streaming) {
+            return HttpResponse.ok(response);
+        }
+        final ValidationResponse summary = new ValidationResponse(response.isPassed(), Collections.emptyList(), response.getExecutionTime(),
+                response.isUtf8Valid(), response.isTruncated(), response.isCached());
+        final Flux<byte[]> lines = Flux.<Object>fromIterable(response.getFailures())
+                .concatWith(Mono.just(summary))
+                .map(this::toNdjson);
+        return HttpResponse.ok(lines).contentType(APPLICATION_NDJSON_TYPE);
+    }
+
+    private static HttpResponse<ErrorResponse> serverBusy(final SpoolFullException e) {
+        LOG.trace("Rejected request, spool directory is full");
+        return HttpResponse.<ErrorResponse>status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter()))
+                .body(new ErrorResponse(ErrorResponse.Code.SERVER_BUSY, "Server is busy, please retry later"));
+    }
+
+    private HttpResponse<ResponseObject> accepted(final ValidationJob job) {
+        return HttpResponse.<ResponseObject>accepted(URI.create(ValidationJobController.JOBS_PATH + "/" + job.getId())).body(job);
+    }
+
+    private Mono<BatchValidationResult> validateBatchItem(final int index, final String url, final String schemaId, final ValidationOptions options, final Scheduler scheduler) {
+        return Mono.fromCallable(() -> {
             try {
-                return HttpResponse.ok(performValidation(downloadedFile, schemaId));
-            } finally {
-                Files.delete(downloadedFile);
+                return BatchValidationResult.of(index, url, downloadAndValidate(url, schemaId, InputMode.BATCH, options, null));
+            } catch (final IOException e) {
+                return BatchValidationResult.of(index, url, downloadError(url, e));
             }
+        })
+        .subscribeOn(scheduler)
+        // the executor is shared with other requests, so an item may still be rejected; it is retried
+        // rather than failing the whole batch, and only reported as busy if the executor stays saturated
+        .retryWhen(Retry.backoff(BATCH_ITEM_RETRIES, BATCH_ITEM_RETRY_BACKOFF).filter(RejectedExecutionException.class::isInstance))
+        .onErrorResume(Exceptions::isRetryExhausted, e ->
+                Mono.just(BatchValidationResult.of(index, url, new ErrorResponse(ErrorResponse.Code.SERVER_BUSY, "Server is busy, please retry later"))));
+    }
+
+    private byte[] toNdjson(final Object value) {
+        try {
+            final byte[] json = jsonMapper.writeValueAsBytes(value);
+            final byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Downloads a CSV file and validates it, deleting the downloaded file afterwards.
+     *
+     * @param url the URL of the CSV file
+     * @param schemaId the schema ID
+     * @param mode how the URL was provided, for metrics
+     * @param options the validation options
+     * @param progress where to report the progress of the download, or null
+     * @return the validation response
+     * @throws IOException if the CSV file could not be downloaded
+     */
+    private ValidationResponse downloadAndValidate(final String url, final String schemaId, final InputMode mode, final ValidationOptions options,
+            @Nullable final DownloadProgress progress) throws IOException {
+        final SpooledFile downloadedFile = fileDownloadService.downloadToTemp(url, progress);
+        LOG.trace("File downloaded to: {}", downloadedFile.path());
+        try {
+            return performValidation(downloadedFile, schemaId, mode, options);
+        } finally {
+            spoolDirectory.delete(downloadedFile.path());
+        }
+    }
+
+    private ResponseObject downloadAndValidateOrError(final String url, final String schemaId, final InputMode mode, final ValidationOptions options,
+            final DownloadProgress progress) {
+        try {
+            return downloadAndValidate(url, schemaId, mode, options, progress);
         } catch (final IOException e) {
-            LOG.trace("Failed to download file from URL: {}", url);
-            return HttpResponse.badRequest().body(new ErrorResponse(ErrorResponse.Code.NON_RESOLVABLE_URL,"Unable to resolve url : " + url));
+            return downloadError(url, e);
+        }
+    }
+
+    private static ErrorResponse downloadError(final String url, final IOException e) {
+        LOG.trace("Failed to download file from URL: {}", url);
+        if (e instanceof SpoolFullException) {
+            return new ErrorResponse(ErrorResponse.Code.SERVER_BUSY, "Server is busy, please retry later");
+        }
+        if (e instanceof FileTooLargeException tooLarge) {
+            return new ErrorResponse(ErrorResponse.Code.FILE_TOO_LARGE, "File exceeds the maximum size of " + tooLarge.getMaxSize() + " bytes : " + url);
         }
+        return new ErrorResponse(ErrorResponse.Code.NON_RESOLVABLE_URL,"Unable to resolve url : " + url);
     }
 
-    private ResponseObject performValidation(final Path csvFile, final String schemaId) {
-        final CsvValidationService.ValidationResult result = csvValidationService.validateCsvFile(csvFile, schemaId);
+    private ValidationResponse performValidation(final SpooledFile csvFile, final String schemaId, final InputMode mode, final ValidationOptions options) {
+        // a validation forwarded from another node is always validated here, as this node owns the CSV file
+        return csvValidationService.validateCached(csvFile, schemaId, options, mode,
+                mode == InputMode.CLUSTER ? null : () -> forwardToOwner(csvFile, schemaId, mode, options));
+    }
 
-        return new ValidationResponse(result.isPassed(), result.getFailures(), result.getExecutionTime(), result.isUtf8Valid());
+    /**
+     * Forwards the validation of a CSV file to the node of the cluster which owns it, whose
+     * result cache then answers for the file whichever node receives it.
+     *
+     * The response is not cached here, as it is already cached by the owning node.
+     *
+     * @return the response of the owning node, or null if this node should validate the CSV file
+     */
+    private @Nullable ValidationResponse forwardToOwner(final SpooledFile csvFile, final String schemaId, final InputMode mode, final ValidationOptions options) {
+        // the owning node limits the failures it reports to its own maximum, so only options which it would not change can be forwarded
+        if (!options.equals(csvValidationService.resolveOptions(options.failFast(), options.maxErrors()))) {
+            return null;
+        }
+        final String owner = clusterService.ownerOf(csvFile.sha256());
+        if (owner == null) {
+            return null;
+        }
+        final ValidationResponse response = clusterService.forward(owner, csvFile, schemaId, options);
+        validationMetrics.recordForwardedValidation(schemaId, mode, response != null);
+        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.dto.ResponseObject;
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
+import com.evolvedbinary.bbl.validator.job.ValidationJobService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import jakarta.inject.Inject;
+
+@Controller(ValidationJobController.JOBS_PATH)
+public class ValidationJobController {
+
+    public static final String JOBS_PATH = "/validate/jobs";
+
+    @Inject
+    ValidationJobService validationJobService;
+
+    @Get("/{job-id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.BLOCKING)
+    public HttpResponse<ResponseObject> getJob(@PathVariable("job-id") final String jobId) {
+        final ValidationJob job = validationJobService.getJob(jobId);
+        if (job == null) {
+            return HttpResponse.notFound(new ErrorResponse(ErrorResponse.Code.JOB_NOT_FOUND,"Validation job not found with ID: " + jobId));
+        }
+        return HttpResponse.ok(job);
+    }
+}
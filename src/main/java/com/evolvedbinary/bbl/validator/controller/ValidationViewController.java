@@ -18,21 +18,33 @@ package com.evolvedbinary.bbl.validator.controller;
 import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
 import com.evolvedbinary.bbl.validator.dto.ValidationFailure;
 import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.executor.ValidationExecutorFactory;
+import com.evolvedbinary.bbl.validator.io.Compression;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics;
 import com.evolvedbinary.bbl.validator.service.CsvValidationService;
 import com.evolvedbinary.bbl.validator.service.FileDownloadService;
+import com.evolvedbinary.bbl.validator.service.FileTooLargeException;
 import com.evolvedbinary.bbl.validator.service.SchemaService;
+import com.evolvedbinary.bbl.validator.service.SpoolDirectory;
+import com.evolvedbinary.bbl.validator.service.SpoolFullException;
+import com.evolvedbinary.bbl.validator.service.SpooledFile;
+import com.evolvedbinary.bbl.validator.service.ValidationOptions;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Part;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.micronaut.views.View;
 import jakarta.inject.Inject;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +59,8 @@ public class ValidationViewController {
     FileDownloadService fileDownloadService;
     @Inject
     SchemaService schemaService;
+    @Inject
+    SpoolDirectory spoolDirectory;
 
     @Value("${api.version}")
     String version;
@@ -62,6 +76,7 @@ public class ValidationViewController {
     }
 
     @View("validate")
+    @ExecuteOn(ValidationExecutorFactory.VALIDATION)
     @Post(value = "/validate", consumes = MediaType.APPLICATION_FORM_URLENCODED)
     public Map<String, Object> validateSubmit(@Body final Map<String, String> formData) {
         final String schemaId = formData.get("schemaId");
@@ -69,6 +84,73 @@ public class ValidationViewController {
         final String csvUrl = formData.get("csvUrl");
         final String csvContent = formData.get("csvContent");
 
+        final Map<String, Object> model = submittedModel(schemaId, csvSource, csvUrl, csvContent);
+
+        if ((csvContent == null || csvContent.isEmpty()) && (csvUrl == null || csvUrl.isEmpty())) {
+            model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "Please provide either CSV content or CSV URL"));
+            return model;
+        }
+
+        final boolean isUrl = csvSource.equals("url");
+        validate(model, schemaId, () -> isUrl ? fileDownloadService.downloadToTemp(csvUrl) : fileDownloadService.saveContentToTemp(csvContent));
+        return model;
+    }
+
+    /**
+     * Handles the form when it is submitted as multipart, so that a CSV file may be uploaded.
+     *
+     * The uploaded file is streamed to a temporary file, rather than being held in memory. As
+     * the parts are received in the order of the form, the file must be its last field. A file
+     * which is not validated, because another source was chosen, is discarded.
+     */
+    @View("validate")
+    @ExecuteOn(ValidationExecutorFactory.VALIDATION)
+    @Post(value = "/validate", consumes = MediaType.MULTIPART_FORM_DATA)
+    public Map<String, Object> validateUpload(final HttpRequest<?> request,
+                                              @Part("schemaId") final String schemaId,
+                                              @Part("csvSource") final String csvSource,
+                                              @Nullable @Part("csvUrl") final String csvUrl,
+                                              @Nullable @Part("csvContent") final String csvContent,
+                                              @Nullable @Part("csvFile") final StreamingFileUpload csvFile) {
+        final Map<String, Object> model = submittedModel(schemaId, csvSource, csvUrl, csvContent);
+
+        if (csvFile != null && (!csvSource.equals("file") || csvFile.getFilename() == null || csvFile.getFilename().isEmpty())) {
+            // an upload which is not read must be discarded, so that the rest of the request is released
+            csvFile.discard();
+        }
+
+        switch (csvSource) {
+            case "url" -> {
+                if (csvUrl == null || csvUrl.isEmpty()) {
+                    model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "Please provide a CSV URL"));
+                } else {
+                    validate(model, schemaId, () -> fileDownloadService.downloadToTemp(csvUrl));
+                }
+            }
+            case "file" -> {
+                if (csvFile == null || csvFile.getFilename() == null || csvFile.getFilename().isEmpty()) {
+                    model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "Please choose a CSV file"));
+                } else {
+                    validate(model, schemaId, () -> {
+                        try (final InputStream inputStream = csvFile.asInputStream()) {
+                            return fileDownloadService.saveStreamToTemp(inputStream, Compression.NONE, request.getContentLength());
+                        }
+                    });
+                }
+            }
+            default -> {
+                if (csvContent == null || csvContent.isEmpty()) {
+                    model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "Please provide CSV content"));
+                } else {
+                    validate(model, schemaId, () -> fileDownloadService.saveContentToTemp(csvContent));
+                }
+            }
+        }
+        return model;
+    }
+
+    private Map<String, Object> submittedModel(final String schemaId, final String csvSource,
+            @Nullable final String csvUrl, @Nullable final String csvContent) {
         final Map<String, Object> model = new HashMap<>();
         model.put("version", version);
         model.put("schemas", schemaService.listSchemas());
@@ -76,29 +158,42 @@ public class ValidationViewController {
         model.put("csvSource", csvSource);
         model.put("csvUrl", csvUrl);
         model.put("csvContent", csvContent);
+        return model;
+    }
 
+    /**
+     * Receives a CSV file into a temporary file.
+     */
+    @FunctionalInterface
+    private interface Spool {
+        SpooledFile spool() throws IOException;
+    }
 
-        if ((csvContent == null || csvContent.isEmpty()) && (csvUrl == null || csvUrl.isEmpty())) {
-            model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "Please provide either CSV content or CSV URL"));
-            return model;
-        }
-
-        final boolean isUrl = csvSource.equals("url");
-
+    /**
+     * Validates a CSV file, putting its result, or an error, into the model.
+     */
+    private void validate(final Map<String, Object> model, final String schemaId, final Spool spool) {
         try {
-            final Path tempFile = isUrl ? fileDownloadService.downloadToTemp(csvUrl) : fileDownloadService.saveContentToTemp(csvContent);
+            final SpooledFile tempFile = spool.spool();
             try {
-                final CsvValidationService.ValidationResult result = csvValidationService.validateCsvFile(tempFile, schemaId);
-                model.put("result", new ValidationResponse(result.isPassed(), result.getFailures(), result.getExecutionTime(), result.isUtf8Valid()));
-                model.put("errorsTable", getErrorsTable(result.getFailures()));
+                if (tempFile.size() == 0) {
+                    model.put("error", new ErrorResponse(ErrorResponse.Code.NO_CSV, "The CSV file is empty"));
+                    return;
+                }
+                final ValidationOptions options = csvValidationService.resolveOptions(null, null);
+                final ValidationResponse response = csvValidationService.validateCached(tempFile, schemaId, options, ValidationMetrics.InputMode.VIEW, null);
+                model.put("result", response);
+                model.put("errorsTable", getErrorsTable(response.getFailures()));
             } finally {
-                Files.delete(tempFile);
+                spoolDirectory.delete(tempFile.path());
             }
+        } catch (final SpoolFullException e) {
+            model.put("error", new ErrorResponse(ErrorResponse.Code.SERVER_BUSY, "The server is busy, please retry later"));
+        } catch (final FileTooLargeException e) {
+            model.put("error", new ErrorResponse(ErrorResponse.Code.FILE_TOO_LARGE, "The CSV file exceeds the maximum size of " + e.getMaxSize() + " bytes"));
         } catch (final IOException e) {
             model.put("error", new ErrorResponse(ErrorResponse.Code.UNEXPECTED_ERROR, "Internal error processing CSV: " + e.getMessage()));
         }
-
-        return model;
     }
 
     private List<String> getErrorsTable(final List<ValidationFailure> failures) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.dto;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Data transfer object representing the outcome of validating one CSV file of a batch.
+ * Exactly one of {@link #getResult()} or {@link #getError()} is present.
+ */
+@Serdeable
+public class BatchValidationResult {
+
+    private final int index;
+    private final String url;
+    @Nullable
+    private final ValidationResponse result;
+    @Nullable
+    private final ErrorResponse error;
+
+    public BatchValidationResult(final int index, final String url, @Nullable final ValidationResponse result, @Nullable final ErrorResponse error) {
+        this.index = index;
+        this.url = url;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static BatchValidationResult of(final int index, final String url, final ValidationResponse result) {
+        return new BatchValidationResult(index, url, result, null);
+    }
+
+    public static BatchValidationResult of(final int index, final String url, final ErrorResponse error) {
+        return new BatchValidationResult(index, url, null, error);
+    }
+
+    /**
+     * @return the position of the CSV file in the batch request
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Nullable
+    public ValidationResponse getResult() {
+        return result;
+    }
+
+    @Nullable
+    public ErrorResponse getError() {
+        return error;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.dto;
+
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Data transfer object representing the state of a pool of HTTP connections.
+ */
+@Serdeable
+public class ConnectionPoolStats {
+
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    public ConnectionPoolStats(final int leased, final int pending, final int available, final int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * @return the number of connections currently in use
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return the number of requests waiting for a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return the number of idle connections available for reuse
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * @return the maximum number of connections
+     */
+    public int getMax() {
+        return max;
+    }
+}
@@ -46,7 +46,37 @@ public final class ErrorResponse implements ResponseObject {
         /**
          * The validation failed
          */
-        VALIDATION_ERROR
+        VALIDATION_ERROR,
+
+        /**
+         * The server is already processing as many validations as it can
+         */
+        SERVER_BUSY,
+
+        /**
+         * Too many CSV files were submitted in one batch
+         */
+        BATCH_TOO_LARGE,
+
+        /**
+         * provided validation job id does not exist, or has expired
+         */
+        JOB_NOT_FOUND,
+
+        /**
+         * The file at the url, or the decompressed csv content, is larger than the maximum size allowed
+         */
+        FILE_TOO_LARGE,
+
+        /**
+         * The csv content is compressed with a Content-Encoding which is not supported
+         */
+        UNSUPPORTED_CONTENT_ENCODING,
+
+        /**
+         * The client has too many requests in flight, or has submitted too much csv content too quickly
+         */
+        TOO_MANY_REQUESTS
     }
 
     private final Code code;
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.dto;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Data transfer object representing the progress of downloading the CSV file of a running validation job.
+ */
+@Serdeable
+public final class JobProgress {
+
+    private final long bytesDownloaded;
+    @Nullable
+    private final Long bytesTotal;
+
+    public JobProgress(final long bytesDownloaded, @Nullable final Long bytesTotal) {
+        this.bytesDownloaded = bytesDownloaded;
+        this.bytesTotal = bytesTotal;
+    }
+
+    public long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    /**
+     * @return the size of the CSV file, or null if the server it is downloaded from did not declare it
+     */
+    @Nullable
+    public Long getBytesTotal() {
+        return bytesTotal;
+    }
+}
@@ -21,7 +21,8 @@ package com.evolvedbinary.bbl.validator.dto;
  *
  * @see ErrorResponse
  * @see ValidationResponse
+ * @see ValidationJob
  */
-public sealed interface ResponseObject permits ErrorResponse, ValidationResponse {
+public sealed interface ResponseObject permits ErrorResponse, ValidationResponse, ValidationJob {
 
 }
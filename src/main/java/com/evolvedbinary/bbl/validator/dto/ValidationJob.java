@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.dto;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Data transfer object representing an asynchronous validation job, and
+ * once it has finished, its outcome.
+ */
+@Serdeable
+public final class ValidationJob implements ResponseObject {
+
+    public enum Status {
+        /**
+         * The job is waiting to be executed
+         */
+        QUEUED,
+
+        /**
+         * The CSV file is being retrieved and validated
+         */
+        RUNNING,
+
+        /**
+         * The CSV file was validated, see the result
+         */
+        COMPLETED,
+
+        /**
+         * The CSV file could not be validated, see the error
+         */
+        FAILED
+    }
+
+    private final String id;
+    private final String schemaId;
+    private final Status status;
+    private final long createdAt;
+    @Nullable
+    private final Long completedAt;
+    @Nullable
+    private final ValidationResponse result;
+    @Nullable
+    private final ErrorResponse error;
+    @Nullable
+    private final JobProgress progress;
+
+    public ValidationJob(final String id,
+                         final String schemaId,
+                         final Status status,
+                         final long createdAt,
+                         @Nullable final Long completedAt,
+                         @Nullable final ValidationResponse result,
+                         @Nullable final ErrorResponse error,
+                         @Nullable final JobProgress progress) {
+        this.id = id;
+        this.schemaId = schemaId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.result = result;
+        this.error = error;
+        this.progress = progress;
+    }
+
+    public static ValidationJob queued(final String id, final String schemaId, final long createdAt) {
+        return new ValidationJob(id, schemaId, Status.QUEUED, createdAt, null, null, null, null);
+    }
+
+    public ValidationJob running() {
+        return new ValidationJob(id, schemaId, Status.RUNNING, createdAt, null, null, null, null);
+    }
+
+    public ValidationJob completed(final ValidationResponse result, final long completedAt) {
+        return new ValidationJob(id, schemaId, Status.COMPLETED, createdAt, completedAt, result, null, null);
+    }
+
+    public ValidationJob failed(final ErrorResponse error, final long completedAt) {
+        return new ValidationJob(id, schemaId, Status.FAILED, createdAt, completedAt, null, error, null);
+    }
+
+    public ValidationJob withProgress(final JobProgress progress) {
+        return new ValidationJob(id, schemaId, status, createdAt, completedAt, result, error, progress);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSchemaId() {
+        return schemaId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the time the job was submitted, in milliseconds since the epoch
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return the time the job completed or failed, in milliseconds since the epoch, or null if it has not finished
+     */
+    @Nullable
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+
+    @Nullable
+    public ValidationResponse getResult() {
+        return result;
+    }
+
+    @Nullable
+    public ErrorResponse getError() {
+        return error;
+    }
+
+    /**
+     * @return the progress of downloading the CSV file, or null if the job is not running or is not downloading a file
+     */
+    @Nullable
+    public JobProgress getProgress() {
+        return progress;
+    }
+}
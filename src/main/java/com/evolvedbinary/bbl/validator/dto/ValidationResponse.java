@@ -30,15 +30,30 @@ public final class ValidationResponse implements ResponseObject {
     private final List<ValidationFailure> failures;
     private final long executionTime;
     private final boolean utf8Valid;
+    private final boolean truncated;
+    private final boolean cached;
 
     public ValidationResponse(final boolean passed,
                               final List<ValidationFailure> failures,
                               final long executionTime,
-                              final boolean utf8Valid) {
+                              final boolean utf8Valid,
+                              final boolean truncated,
+                              final boolean cached) {
         this.executionTime = executionTime;
         this.passed = passed;
         this.failures = failures != null ? failures : Collections.emptyList();
         this.utf8Valid = utf8Valid;
+        this.truncated = truncated;
+        this.cached = cached;
+    }
+
+    /**
+     * Returns a copy of this response for when it is served from the result cache.
+     *
+     * @return the cached response
+     */
+    public ValidationResponse asCached() {
+        return new ValidationResponse(passed, failures, executionTime, utf8Valid, truncated, true);
     }
 
     public boolean isPassed() {
@@ -55,4 +70,18 @@ public final class ValidationResponse implements ResponseObject {
 
     public boolean isUtf8Valid() { return utf8Valid; }
 
+    /**
+     * @return true if there were more failures than the maximum number requested, and only the first of them are reported
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return true if the CSV was not validated again, as an identical CSV had already been validated against the same schema
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.executor;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor which runs at most {@code maxConcurrency} tasks at once, and
+ * queues at most {@code queueDepth} further tasks. Any task submitted beyond
+ * that is rejected immediately with a {@link ExecutorSaturatedException},
+ * rather than being queued without limit.
+ */
+@ThreadSafe
+public class BoundedExecutorService extends AbstractExecutorService {
+
+    public enum Type {
+        /**
+         * A fixed size pool of platform threads.
+         */
+        PLATFORM,
+
+        /**
+         * A new virtual thread per task.
+         */
+        VIRTUAL
+    }
+
+    private final ExecutorService delegate;
+    private final int maxConcurrency;
+    private final int queueDepth;
+    private final int retryAfter;
+
+    /**
+     * Permits for tasks that are either running or queued.
+     */
+    private final Semaphore admitted;
+
+    /**
+     * Permits for tasks that are running, only needed when there is no fixed
+     * size thread pool to bound the concurrency.
+     */
+    private final Semaphore running;
+
+    public BoundedExecutorService(final String name, final Type type, final int maxConcurrency, final int queueDepth, final int retryAfter) {
+        this.maxConcurrency = maxConcurrency;
+        this.queueDepth = queueDepth;
+        this.retryAfter = retryAfter;
+        this.admitted = new Semaphore(maxConcurrency + queueDepth);
+
+        if (type == Type.VIRTUAL) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+            this.running = new Semaphore(maxConcurrency);
+        } else {
+            this.delegate = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), Thread.ofPlatform().name(name + "-", 0).daemon(true).factory());
+            this.running = null;
+        }
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (!admitted.tryAcquire()) {
+            throw new ExecutorSaturatedException(retryAfter);
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    if (running != null) {
+                        running.acquireUninterruptibly();
+                        try {
+                            command.run();
+                        } finally {
+                            running.release();
+                        }
+                    } else {
+                        command.run();
+                    }
+                } finally {
+                    admitted.release();
+                }
+            });
+        } catch (final RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of tasks which are currently either running or queued.
+     *
+     * @return the number of tasks in flight
+     */
+    public int getInFlight() {
+        return maxConcurrency + queueDepth - admitted.availablePermits();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
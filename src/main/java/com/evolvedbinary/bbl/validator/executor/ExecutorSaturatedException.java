@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a task is submitted to a {@link BoundedExecutorService}
+ * which already has as many tasks running and queued as it allows.
+ */
+public class ExecutorSaturatedException extends RejectedExecutionException {
+
+    private final int retryAfter;
+
+    public ExecutorSaturatedException(final int retryAfter) {
+        super("Executor is saturated");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long a client should wait before retrying.
+     *
+     * @return the number of seconds to wait
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.executor;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Creates the executor on which all blocking validation work (downloading,
+ * writing temp files and running the CSV Validator) is performed, so that
+ * it never runs on the Netty event loop.
+ */
+@Factory
+public class ValidationExecutorFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationExecutorFactory.class);
+
+    /**
+     * The name of the validation executor, for use with {@link io.micronaut.scheduling.annotation.ExecuteOn}.
+     */
+    public static final String VALIDATION = "validation";
+
+    /**
+     * The name of the pool on which the chunks of a large CSV file are validated in parallel.
+     */
+    public static final String VALIDATION_CHUNKS = "validation-chunks";
+
+    @Named(VALIDATION)
+    @Singleton
+    @Bean(preDestroy = "shutdown")
+    public BoundedExecutorService validationExecutor(
+            @Value("${validation.executor.type:platform}") final String type,
+            @Value("${validation.executor.max-concurrency:0}") final int maxConcurrency,
+            @Value("${validation.executor.queue-depth:32}") final int queueDepth,
+            @Value("${validation.executor.retry-after:5}") final int retryAfter) {
+        final BoundedExecutorService.Type executorType;
+        try {
+            executorType = BoundedExecutorService.Type.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown validation.executor.type: " + type + ", expected 'platform' or 'virtual'");
+        }
+        final int concurrency = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+
+        LOG.info("Validation executor: type={}, max-concurrency={}, queue-depth={}", executorType, concurrency, queueDepth);
+        return new BoundedExecutorService(VALIDATION, executorType, concurrency, queueDepth, retryAfter);
+    }
+
+    /**
+     * Creates the pool on which chunks of CSV files are validated. It is shared by all
+     * validations, so that however many large files are being validated at once, no more
+     * chunks than its parallelism are validated at the same time.
+     */
+    @Named(VALIDATION_CHUNKS)
+    @Singleton
+    @Bean(preDestroy = "shutdown")
+    public ForkJoinPool validationChunksPool(@Value("${validation.parallel.parallelism:0}") final int parallelism) {
+        final int concurrency = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        final ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(VALIDATION_CHUNKS + "-" + thread.getPoolIndex());
+            return thread;
+        };
+
+        LOG.info("Validation chunks pool: parallelism={}", concurrency);
+        return new ForkJoinPool(concurrency, threadFactory, null, false);
+    }
+}
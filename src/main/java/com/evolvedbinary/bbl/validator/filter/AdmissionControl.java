@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.filter;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.convert.format.ReadableBytes;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a validation request is admitted, so that no one client can starve the others.
+ *
+ * A request is admitted only if its client has fewer than the maximum number of requests in
+ * flight, if the client has not submitted more than its share of bytes recently, and if the
+ * estimated size of the CSV files being validated by the server, across all clients, would not
+ * exceed the in-flight bytes budget. A client's share of bytes is a token bucket, which is refilled
+ * at a steady rate up to a burst size. Anything else is rejected at once, rather than being queued.
+ */
+@Singleton
+@ThreadSafe
+public class AdmissionControl {
+
+    /**
+     * Why a request was not admitted.
+     */
+    public enum Reason {
+        /**
+         * The client already has as many requests in flight as it is allowed
+         */
+        CONCURRENCY,
+
+        /**
+         * The client has submitted more bytes than its rate allows
+         */
+        RATE,
+
+        /**
+         * The server is already validating as many bytes as its budget allows
+         */
+        IN_FLIGHT_BYTES;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxConcurrencyPerClient;
+    private final long bytesPerSecond;
+    private final long burst;
+    private final long maxInFlightBytes;
+    private final long retryAfter;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, ClientState> clients = new ConcurrentHashMap<>();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    @Inject
+    public AdmissionControl(@Value("${admission.enabled:true}") final boolean enabled,
+                            @Value("${admission.client.max-concurrency:8}") final int maxConcurrencyPerClient,
+                            @Value("${admission.client.bytes-per-second:64MB}") @ReadableBytes final long bytesPerSecond,
+                            @Value("${admission.client.burst:256MB}") @ReadableBytes final long burst,
+                            @Value("${admission.max-in-flight-bytes:2GB}") @ReadableBytes final long maxInFlightBytes,
+                            @Value("${admission.retry-after:1}") final long retryAfter) {
+        this(enabled, maxConcurrencyPerClient, bytesPerSecond, burst, maxInFlightBytes, retryAfter, System::nanoTime);
+    }
+
+    AdmissionControl(final boolean enabled, final int maxConcurrencyPerClient, final long bytesPerSecond, final long burst,
+            final long maxInFlightBytes, final long retryAfter, final LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.maxConcurrencyPerClient = maxConcurrencyPerClient;
+        this.bytesPerSecond = bytesPerSecond;
+        this.burst = Math.max(burst, bytesPerSecond);
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.retryAfter = retryAfter;
+        this.nanoTime = nanoTime;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admits a request, or rejects it.
+     *
+     * @param client identifies the client making the request, e.g. by its API key or IP address
+     * @param estimatedBytes the estimated size of the CSV files to be validated for the request
+     * @return the permit of the admitted request, which must be released once the request has been handled
+     * @throws AdmissionRejectedException if the request is not admitted
+     */
+    public Permit admit(final String client, final long estimatedBytes) throws AdmissionRejectedException {
+        reserveInFlightBytes(estimatedBytes);
+        try {
+            final ClientState clientState = clients.computeIfAbsent(client, key -> new ClientState(burst, nanoTime.getAsLong()));
+            clientState.admit(estimatedBytes);
+            return new Permit(clientState, estimatedBytes);
+        } catch (final AdmissionRejectedException e) {
+            inFlightBytes.addAndGet(-estimatedBytes);
+            throw e;
+        }
+    }
+
+    private void reserveInFlightBytes(final long estimatedBytes) throws AdmissionRejectedException {
+        long current;
+        do {
+            current = inFlightBytes.get();
+            // a single request larger than the budget is still admitted when nothing else is in flight
+            if (maxInFlightBytes > 0 && current > 0 && current + estimatedBytes > maxInFlightBytes) {
+                throw new AdmissionRejectedException(Reason.IN_FLIGHT_BYTES, retryAfter);
+            }
+        } while (!inFlightBytes.compareAndSet(current, current + estimatedBytes));
+    }
+
+    /**
+     * @return the estimated size of the CSV files being validated for admitted requests
+     */
+    public long getInFlightBytes() {
+        return inFlightBytes.get();
+    }
+
+    /**
+     * Forgets clients which have nothing in flight and a full token bucket, as they are no
+     * different from a client which has never made a request.
+     */
+    @Scheduled(fixedDelay = "${admission.eviction-interval:1m}")
+    void evictIdleClients() {
+        final long now = nanoTime.getAsLong();
+        clients.values().removeIf(clientState -> clientState.isIdle(now));
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * The admission of a request, which must be released once the request has been handled.
+     */
+    public final class Permit {
+        private final ClientState clientState;
+        private final long estimatedBytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final ClientState clientState, final long estimatedBytes) {
+            this.clientState = clientState;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        /**
+         * Releases the permit, releasing it more than once has no further effect.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                clientState.release();
+                inFlightBytes.addAndGet(-estimatedBytes);
+            }
+        }
+    }
+
+    private final class ClientState {
+        @GuardedBy("this") private int inFlight;
+        @GuardedBy("this") private double tokens;
+        @GuardedBy("this") private long refilledAt;
+
+        private ClientState(final long tokens, final long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized void admit(final long estimatedBytes) throws AdmissionRejectedException {
+            if (maxConcurrencyPerClient > 0 && inFlight >= maxConcurrencyPerClient) {
+                throw new AdmissionRejectedException(Reason.CONCURRENCY, retryAfter);
+            }
+            if (bytesPerSecond > 0) {
+                refill(nanoTime.getAsLong());
+                // a request larger than the burst only has to wait for a full bucket
+                final long cost = Math.min(estimatedBytes, burst);
+                if (tokens < cost) {
+                    final long wait = (long) Math.ceil((cost - tokens) / bytesPerSecond);
+                    throw new AdmissionRejectedException(Reason.RATE, Math.max(1, wait));
+                }
+                tokens -= cost;
+            }
+            inFlight++;
+        }
+
+        synchronized void release() {
+            inFlight--;
+        }
+
+        synchronized boolean isIdle(final long now) {
+            refill(now);
+            return inFlight == 0 && tokens >= burst;
+        }
+
+        @GuardedBy("this")
+        private void refill(final long now) {
+            final long elapsed = now - refilledAt;
+            if (elapsed > 0) {
+                tokens = Math.min(burst, tokens + (double) bytesPerSecond * elapsed / TimeUnit.SECONDS.toNanos(1));
+                refilledAt = now;
+            }
+        }
+    }
+}
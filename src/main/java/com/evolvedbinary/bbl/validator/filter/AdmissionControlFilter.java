@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.filter;
+
+import com.evolvedbinary.bbl.validator.cluster.ClusterService;
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.ReadableBytes;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Applies {@link AdmissionControl} to validation requests, rejecting those which are not
+ * admitted with a 429 and a Retry-After header before their body is read.
+ *
+ * Clients are identified by their API key, if they send one which is configured in
+ * {@code admission.api-keys}, or else by their IP address, so that a client cannot escape its
+ * limits by sending a new key with each request. Validations forwarded from another node of
+ * the cluster were admitted by the node which received them, so are not admitted again.
+ */
+@Filter(value = {"/validate", "/validate/**"}, methods = HttpMethod.POST)
+public class AdmissionControlFilter implements HttpServerFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    @Inject
+    AdmissionControl admissionControl;
+    @Inject
+    ValidationMetrics validationMetrics;
+    @Inject
+    ClusterService clusterService;
+
+    @Value("${admission.api-key-header:X-API-Key}")
+    String apiKeyHeader;
+
+    /**
+     * The API keys which identify clients, any other key is ignored.
+     */
+    @Nullable
+    @Property(name = "admission.api-keys")
+    List<String> apiKeys;
+
+    /**
+     * The size assumed for the CSV files of a request whose size is not known up front, e.g. those given by URL.
+     */
+    @Value("${admission.estimated-size:16MB}")
+    @ReadableBytes
+    long estimatedSize;
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(final HttpRequest<?> request, final ServerFilterChain chain) {
+        if (!admissionControl.isEnabled() || isForwardedByNode(request)) {
+            return chain.proceed(request);
+        }
+
+        final String client = clientOf(request);
+        final AdmissionControl.Permit permit;
+        try {
+            permit = admissionControl.admit(client, estimateSize(request));
+        } catch (final AdmissionRejectedException e) {
+            LOG.trace("Rejected request from {}, {}: {}", client, e.getReason(), request.getPath());
+            validationMetrics.recordRejectedRequest(e.getReason());
+            return Flux.just(HttpResponse.<ErrorResponse>status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter()))
+                    .body(new ErrorResponse(ErrorResponse.Code.TOO_MANY_REQUESTS, "Too many requests, please retry later")));
+        }
+        return Flux.from(chain.proceed(request))
+                .doFinally(signal -> permit.release());
+    }
+
+    private boolean isForwardedByNode(final HttpRequest<?> request) {
+        return request.getHeaders().contains(ClusterService.FORWARDED_HEADER)
+                && clusterService.isNode(request.getRemoteAddress().getAddress());
+    }
+
+    private String clientOf(final HttpRequest<?> request) {
+        final String apiKey = request.getHeaders().get(apiKeyHeader);
+        if (apiKey != null && apiKeys != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        final InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString());
+    }
+
+    private long estimateSize(final HttpRequest<?> request) {
+        final long contentLength = request.getContentLength();
+        final boolean carriesCsv = request.getContentType()
+                .map(contentType -> contentType.matches(MediaType.TEXT_CSV_TYPE) || contentType.matches(MediaType.MULTIPART_FORM_DATA_TYPE))
+                .orElse(false);
+        return carriesCsv && contentLength >= 0 ? contentLength : estimatedSize;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.filter;
+
+/**
+ * Thrown when {@link AdmissionControl} does not admit a request.
+ */
+public class AdmissionRejectedException extends Exception {
+
+    private final AdmissionControl.Reason reason;
+    private final long retryAfter;
+
+    public AdmissionRejectedException(final AdmissionControl.Reason reason, final long retryAfter) {
+        super("Request not admitted: " + reason);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public AdmissionControl.Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns how long a client should wait before retrying.
+     *
+     * @return the number of seconds to wait
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
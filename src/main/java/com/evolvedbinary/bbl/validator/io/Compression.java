@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import com.github.luben.zstd.ZstdInputStream;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A compression which CSV files may be received in.
+ *
+ * Compressed content is decompressed as it is read, so that it is never inflated
+ * into memory in its entirety.
+ */
+public enum Compression {
+
+    NONE,
+    GZIP,
+    DEFLATE,
+    ZSTD,
+    /**
+     * A Zip archive, of which the first file is read.
+     */
+    ZIP;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The number of leading bytes needed to detect a compression.
+     */
+    public static final int MAGIC_LENGTH = 4;
+
+    /**
+     * Returns the compression named by an HTTP Content-Encoding.
+     *
+     * @param contentEncoding the Content-Encoding, or null
+     * @return the compression, {@link #NONE} if there is no Content-Encoding, or null if it is not supported
+     */
+    public static @Nullable Compression fromContentEncoding(@Nullable final String contentEncoding) {
+        if (contentEncoding == null) {
+            return NONE;
+        }
+        return switch (contentEncoding.strip().toLowerCase(Locale.ROOT)) {
+            case "", "identity" -> NONE;
+            case "gzip", "x-gzip" -> GZIP;
+            case "deflate" -> DEFLATE;
+            case "zstd" -> ZSTD;
+            default -> null;
+        };
+    }
+
+    /**
+     * Detects the compression of content from its leading magic bytes, without consuming them.
+     *
+     * Content compressed with {@link #DEFLATE} has no reliable magic bytes, and so is never detected.
+     *
+     * @param inputStream the content, which must support mark and reset
+     * @return the compression, or {@link #NONE} if the content is not compressed
+     * @throws IOException if the content could not be read
+     */
+    public static Compression detect(final InputStream inputStream) throws IOException {
+        inputStream.mark(MAGIC_LENGTH);
+        final byte[] magic = inputStream.readNBytes(MAGIC_LENGTH);
+        inputStream.reset();
+
+        if (magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return GZIP;
+        }
+        if (magic.length == MAGIC_LENGTH) {
+            if ((magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5 && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD) {
+                return ZSTD;
+            }
+            if (magic[0] == 'P' && magic[1] == 'K' && magic[2] == 0x03 && magic[3] == 0x04) {
+                return ZIP;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Decompresses content which is in this compression.
+     *
+     * @param inputStream the content
+     * @return the decompressed content, which closes the content when it is closed
+     * @throws IOException if the content is not in this compression
+     */
+    public InputStream decompress(final InputStream inputStream) throws IOException {
+        return switch (this) {
+            case NONE -> inputStream;
+            case GZIP -> new GZIPInputStream(inputStream, BUFFER_SIZE);
+            case DEFLATE -> new InflaterInputStream(inputStream);
+            case ZSTD -> new ZstdInputStream(inputStream);
+            case ZIP -> firstFile(new ZipInputStream(inputStream));
+        };
+    }
+
+    private static InputStream firstFile(final ZipInputStream zipInputStream) throws IOException {
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                // reads up to the end of this entry
+                return zipInputStream;
+            }
+        }
+        zipInputStream.close();
+        throw new IOException("Zip archive contains no files");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory-mapped segments, so that its content is read directly from the
+ * OS page cache rather than being copied through buffers on the Java heap.
+ *
+ * A single mapping is limited to 2GB, so larger files are visited as several consecutive segments.
+ */
+public final class MappedFile {
+
+    /**
+     * The maximum size of each mapped segment.
+     */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    /**
+     * Visits the segments of a mapped file.
+     */
+    @FunctionalInterface
+    public interface SegmentVisitor {
+
+        /**
+         * Visits a segment of the file.
+         *
+         * @param segment the content of the segment, from its position to its limit
+         * @param offset the offset of the segment within the file
+         * @return true to visit the next segment, or false to stop
+         * @throws IOException if the segment could not be processed
+         */
+        boolean visit(MappedByteBuffer segment, long offset) throws IOException;
+    }
+
+    private MappedFile() {
+    }
+
+    /**
+     * Maps a file, and visits each of its segments in order.
+     *
+     * @param file the file
+     * @param visitor the visitor of the segments
+     * @return the size of the file
+     * @throws IOException if the file could not be mapped
+     */
+    public static long forEachSegment(final Path file, final SegmentVisitor visitor) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long offset = 0;
+            while (offset < size) {
+                final long length = Math.min(SEGMENT_SIZE, size - offset);
+                final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (!visitor.visit(segment, offset)) {
+                    break;
+                }
+                offset += length;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import io.micronaut.core.annotation.Nullable;
+import net.jcip.annotations.Immutable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content which is compressed once, when it is created, so that it can be served
+ * compressed many times without compressing it for each response.
+ *
+ * The byte arrays returned are shared, and so must not be modified.
+ */
+@Immutable
+public final class PrecompressedContent {
+
+    private final String hash;
+    private final byte[] content;
+    @Nullable
+    private final byte[] gzip;
+    @Nullable
+    private final byte[] zstd;
+
+    private PrecompressedContent(final String hash, final byte[] content, @Nullable final byte[] gzip, @Nullable final byte[] zstd) {
+        this.hash = hash;
+        this.content = content;
+        this.gzip = gzip;
+        this.zstd = zstd;
+    }
+
+    /**
+     * Compresses content with each of the supported compressions.
+     *
+     * @param content the content
+     * @param hash a hash which identifies the content
+     * @return the content, and its compressed forms
+     */
+    public static PrecompressedContent of(final byte[] content, final String hash) {
+        try {
+            return new PrecompressedContent(hash, content, smaller(content, gzip(content)), smaller(content, zstd(content)));
+        } catch (final IOException e) {
+            // compressing into memory does not perform any I/O
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] zstd(final byte[] content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final OutputStream zstd = new ZstdOutputStream(compressed)) {
+            zstd.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static @Nullable byte[] smaller(final byte[] content, final byte[] compressed) {
+        return compressed.length < content.length ? compressed : null;
+    }
+
+    /**
+     * @return the hash which identifies the content
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the uncompressed content
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the content in a compression.
+     *
+     * @param compression the compression
+     * @return the compressed content, or null if it is not available in that compression,
+     *     or compressing it does not make it smaller
+     */
+    public @Nullable byte[] getContent(final Compression compression) {
+        return switch (compression) {
+            case NONE -> content;
+            case GZIP -> gzip;
+            case ZSTD -> zstd;
+            default -> null;
+        };
+    }
+}
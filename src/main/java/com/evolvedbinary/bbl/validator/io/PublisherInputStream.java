@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import net.jcip.annotations.NotThreadSafe;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * An InputStream over a Publisher of byte chunks, such as a streamed
+ * HTTP request body.
+ *
+ * Chunks are requested from the publisher only as they are read, and at
+ * most {@code prefetch} chunks are buffered, so the memory used is
+ * independent of the total size of the content. Reading blocks, so this
+ * must not be used on an event loop thread.
+ */
+@NotThreadSafe
+public class PublisherInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Stream<byte[]> stream;
+    private final Iterator<byte[]> chunks;
+    private byte[] chunk = EMPTY;
+    private int position;
+
+    public PublisherInputStream(final Publisher<byte[]> publisher, final int prefetch) {
+        this.stream = Flux.from(publisher).toStream(prefetch);
+        this.chunks = stream.iterator();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        final int count = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    /**
+     * Makes sure there are unread bytes in the current chunk.
+     *
+     * @return false if the publisher has completed and there are no more bytes
+     */
+    private boolean nextChunk() throws IOException {
+        while (position >= chunk.length) {
+            try {
+                if (!chunks.hasNext()) {
+                    return false;
+                }
+                chunk = chunks.next();
+                position = 0;
+            } catch (final RuntimeException e) {
+                throw new IOException("Error whilst receiving content: " + e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // cancels the subscription if the publisher has not completed
+        stream.close();
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+/**
+ * The position of a malformed UTF-8 sequence.
+ *
+ * @param offset the offset of the first byte of the sequence
+ * @param line the line of the sequence, starting at 1
+ * @param column the column of the sequence, in characters, starting at 1
+ */
+public record Utf8Error(long offset, long line, long column) {
+}
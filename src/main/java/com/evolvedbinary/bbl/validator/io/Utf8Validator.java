@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks that content is well-formed UTF-8, as defined by RFC 3629, i.e. without overlong
+ * encodings, surrogates, or code points above U+10FFFF.
+ *
+ * Content may be given in several consecutive buffers, and a multi-byte sequence may be
+ * split across them. Runs of ASCII, which make up most CSV files, are checked eight bytes
+ * at a time (SWAR), whilst also counting the line feeds within them.
+ *
+ * The positions of the first malformed sequences are recorded. After a malformed sequence,
+ * checking resumes at the next byte which could start a sequence. Once the maximum number of
+ * errors has been recorded, only line feeds are counted.
+ */
+@NotThreadSafe
+public class Utf8Validator {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LINE_FEEDS = 0x0A0A0A0A0A0A0A0AL;
+
+    private final int maxErrors;
+    private final List<Utf8Error> errors;
+    private int errorCount;
+
+    private long offset;
+    private long line = 1;
+    private long column = 1;
+
+    private int remaining;
+    private int lower = 0x80;
+    private int upper = 0xBF;
+    private long sequenceOffset;
+    private long sequenceColumn;
+
+    /**
+     * Creates a validator which only determines whether content is well-formed.
+     */
+    public Utf8Validator() {
+        this(0);
+    }
+
+    /**
+     * Creates a validator which records the positions of malformed sequences.
+     *
+     * @param maxErrors the maximum number of positions to record
+     */
+    public Utf8Validator(final int maxErrors) {
+        this.maxErrors = maxErrors;
+        this.errors = maxErrors > 0 ? new ArrayList<>(Math.min(maxErrors, 16)) : Collections.emptyList();
+    }
+
+    /**
+     * Checks whether a file is well-formed UTF-8, reading it through memory-mapped segments.
+     *
+     * @param file the file
+     * @return true if the file is well-formed UTF-8
+     * @throws IOException if the file could not be read
+     */
+    public static boolean isValid(final Path file) throws IOException {
+        final Utf8Validator validator = new Utf8Validator();
+        MappedFile.forEachSegment(file, (segment, offset) -> validator.update(segment));
+        return validator.isComplete();
+    }
+
+    /**
+     * Checks the next buffer of content, from its position to its limit. The position of the buffer is not changed.
+     *
+     * @param buffer the content
+     * @return false if no more content need be checked, as the content is not well-formed
+     *     and the maximum number of errors has been recorded
+     */
+    public boolean update(final ByteBuffer buffer) {
+        // read words least significant byte first, so that byte i of a word is at bits 8i to 8i + 7
+        final ByteBuffer content = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int start = content.position();
+        final int limit = content.limit();
+        if (isExhausted()) {
+            countLineFeeds(content, start, limit);
+            return false;
+        }
+
+        int i = start;
+        while (i < limit) {
+            if (remaining == 0 && i + Long.BYTES <= limit) {
+                final long word = content.getLong(i);
+                if ((word & HIGH_BITS) == 0) {
+                    asciiWord(word);
+                    i += Long.BYTES;
+                    continue;
+                }
+            }
+
+            final int b = content.get(i) & 0xFF;
+            if (remaining == 0) {
+                if (b < 0x80) {
+                    if (b == '\n') {
+                        line++;
+                        column = 1;
+                    } else {
+                        column++;
+                    }
+                    i++;
+                    continue;
+                }
+                sequenceOffset = offset + i - start;
+                sequenceColumn = column;
+                column++;
+                if (b >= 0xC2 && b <= 0xDF) {
+                    remaining = 1;
+                } else if (b == 0xE0) {
+                    // excludes overlong 3 byte encodings
+                    remaining = 2;
+                    lower = 0xA0;
+                } else if (b == 0xED) {
+                    // excludes the surrogates U+D800 to U+DFFF
+                    remaining = 2;
+                    upper = 0x9F;
+                } else if (b >= 0xE1 && b <= 0xEF) {
+                    remaining = 2;
+                } else if (b == 0xF0) {
+                    // excludes overlong 4 byte encodings
+                    remaining = 3;
+                    lower = 0x90;
+                } else if (b == 0xF4) {
+                    // excludes code points above U+10FFFF
+                    remaining = 3;
+                    upper = 0x8F;
+                } else if (b >= 0xF1 && b <= 0xF3) {
+                    remaining = 3;
+                } else {
+                    error(sequenceOffset, line, sequenceColumn);
+                }
+                i++;
+            } else if (b < lower || b > upper) {
+                // the sequence ended early, so check this byte again as the start of the next one
+                error(sequenceOffset, line, sequenceColumn);
+            } else {
+                lower = 0x80;
+                upper = 0xBF;
+                remaining--;
+                i++;
+            }
+
+            if (isExhausted()) {
+                countLineFeeds(content, i, limit);
+                return false;
+            }
+        }
+
+        offset += limit - start;
+        return true;
+    }
+
+    private void countLineFeeds(final ByteBuffer content, final int start, final int limit) {
+        int i = start;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            line += Long.bitCount(lineFeeds(content.getLong(i)));
+        }
+        for (; i < limit; i++) {
+            if (content.get(i) == '\n') {
+                line++;
+            }
+        }
+        offset += limit - content.position();
+    }
+
+    /**
+     * Returns a word in which exactly the bytes which are line feeds have their high bit set.
+     */
+    private static long lineFeeds(final long word) {
+        final long xored = word ^ LINE_FEEDS;
+        return ~(((xored & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | xored | LOW_SEVEN_BITS);
+    }
+
+    private void asciiWord(final long word) {
+        final long lineFeeds = lineFeeds(word);
+        if (lineFeeds == 0) {
+            column += Long.BYTES;
+        } else {
+            line += Long.bitCount(lineFeeds);
+            final int lastLineFeed = (Long.SIZE - 1 - Long.numberOfLeadingZeros(lineFeeds)) / Byte.SIZE;
+            column = Long.BYTES - lastLineFeed;
+        }
+    }
+
+    private void error(final long errorOffset, final long errorLine, final long errorColumn) {
+        if (errors.size() < maxErrors) {
+            errors.add(new Utf8Error(errorOffset, errorLine, errorColumn));
+        }
+        errorCount++;
+        remaining = 0;
+        lower = 0x80;
+        upper = 0xBF;
+    }
+
+    private boolean isExhausted() {
+        return errorCount > 0 && errorCount >= maxErrors;
+    }
+
+    /**
+     * Returns whether all of the content checked is well-formed UTF-8, and does not end part way through a multi-byte sequence.
+     *
+     * @return true if the content is well-formed UTF-8
+     */
+    public boolean isComplete() {
+        return errorCount == 0 && remaining == 0;
+    }
+
+    /**
+     * Returns the positions of the first malformed sequences, up to the maximum number of errors,
+     * including a sequence which the content ends part way through.
+     *
+     * @return the positions of the malformed sequences, which is empty if the content is well-formed
+     */
+    public List<Utf8Error> getErrors() {
+        if (remaining > 0 && errors.size() < maxErrors) {
+            final List<Utf8Error> withUnfinished = new ArrayList<>(errors);
+            withUnfinished.add(new Utf8Error(sequenceOffset, line, sequenceColumn));
+            return withUnfinished;
+        }
+        return errors;
+    }
+
+    /**
+     * Returns the number of line feeds in the content checked.
+     *
+     * @return the number of line feeds
+     */
+    public long getLineFeeds() {
+        return line - 1;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.job;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.json.JsonMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores each job as a JSON file in a directory, so that jobs, and their
+ * results, survive a restart of the server.
+ */
+@Singleton
+@Requires(property = "validation.jobs.store", value = "disk")
+public class FileSystemJobStore implements JobStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileSystemJobStore.class);
+    private static final String JOB_FILE_EXTENSION = ".json";
+    private static final Pattern VALID_ID = Pattern.compile("[0-9a-fA-F-]+");
+
+    @Value("${validation.jobs.directory:jobs}")
+    String jobsDirectory;
+
+    @Inject
+    JsonMapper jsonMapper;
+
+    private Path directory;
+
+    @PostConstruct
+    public void init() {
+        this.directory = Paths.get(jobsDirectory).toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to create jobs directory: " + directory, e);
+        }
+        LOG.info("Storing validation jobs in: {}", directory);
+    }
+
+    @Override
+    public void put(final ValidationJob job) {
+        final Path jobFile = jobFile(job.getId());
+        final Path tempFile = jobFile.resolveSibling(job.getId() + ".tmp");
+        try {
+            Files.write(tempFile, jsonMapper.writeValueAsBytes(job));
+            Files.move(tempFile, jobFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to store job: " + job.getId(), e);
+        }
+    }
+
+    @Override
+    public @Nullable ValidationJob get(final String id) {
+        if (!VALID_ID.matcher(id).matches()) {
+            return null;
+        }
+        try {
+            return jsonMapper.readValue(Files.readAllBytes(jobFile(id)), ValidationJob.class);
+        } catch (final NoSuchFileException e) {
+            return null;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to read job: " + id, e);
+        }
+    }
+
+    @Override
+    public void remove(final String id) {
+        try {
+            Files.deleteIfExists(jobFile(id));
+        } catch (final IOException e) {
+            LOG.warn("Unable to remove job: {}", id, e);
+        }
+    }
+
+    @Override
+    public Collection<ValidationJob> list() {
+        final List<ValidationJob> jobs = new ArrayList<>();
+        try (final Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(JOB_FILE_EXTENSION))
+                    .forEach(path -> {
+                        final String fileName = path.getFileName().toString();
+                        try {
+                            final ValidationJob job = get(fileName.substring(0, fileName.length() - JOB_FILE_EXTENSION.length()));
+                            if (job != null) {
+                                jobs.add(job);
+                            }
+                        } catch (final UncheckedIOException e) {
+                            LOG.warn("Ignoring unreadable job file: {}", path, e);
+                        }
+                    });
+        } catch (final IOException e) {
+            LOG.warn("Unable to list jobs directory: {}", directory, e);
+        }
+        return jobs;
+    }
+
+    private Path jobFile(final String id) {
+        return directory.resolve(id + JOB_FILE_EXTENSION);
+    }
+}
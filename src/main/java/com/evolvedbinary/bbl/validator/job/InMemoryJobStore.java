@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.job;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores jobs in memory, they are lost when the server restarts.
+ */
+@Singleton
+@Requires(property = "validation.jobs.store", value = "memory", defaultValue = "memory")
+public class InMemoryJobStore implements JobStore {
+
+    private final Map<String, ValidationJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(final ValidationJob job) {
+        jobs.put(job.getId(), job);
+    }
+
+    @Override
+    public @Nullable ValidationJob get(final String id) {
+        return jobs.get(id);
+    }
+
+    @Override
+    public void remove(final String id) {
+        jobs.remove(id);
+    }
+
+    @Override
+    public Collection<ValidationJob> list() {
+        return List.copyOf(jobs.values());
+    }
+}
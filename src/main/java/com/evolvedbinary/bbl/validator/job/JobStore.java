@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.job;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Storage for the state of asynchronous validation jobs.
+ */
+public interface JobStore {
+
+    /**
+     * Stores a job, replacing any previous state of the job with the same id.
+     *
+     * @param job the job
+     */
+    void put(ValidationJob job);
+
+    /**
+     * Retrieves a job.
+     *
+     * @param id the id of the job
+     * @return the job, or null if there is no such job
+     */
+    @Nullable ValidationJob get(String id);
+
+    /**
+     * Removes a job.
+     *
+     * @param id the id of the job
+     */
+    void remove(String id);
+
+    /**
+     * Retrieves all stored jobs.
+     *
+     * @return the jobs
+     */
+    Collection<ValidationJob> list();
+}
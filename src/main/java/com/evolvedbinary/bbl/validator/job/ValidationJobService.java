@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.job;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.dto.JobProgress;
+import com.evolvedbinary.bbl.validator.dto.ResponseObject;
+import com.evolvedbinary.bbl.validator.dto.ValidationJob;
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.executor.BoundedExecutorService;
+import com.evolvedbinary.bbl.validator.executor.ValidationExecutorFactory;
+import com.evolvedbinary.bbl.validator.service.DownloadProgress;
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.RandomBasedGenerator;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs validations asynchronously on the validation executor, and keeps track
+ * of their state in a {@link JobStore} until they expire.
+ */
+@Singleton
+public class ValidationJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationJobService.class);
+
+    @Inject
+    JobStore jobStore;
+
+    @Inject
+    @Named(ValidationExecutorFactory.VALIDATION)
+    BoundedExecutorService validationExecutor;
+
+    /**
+     * How long a job is kept after it has finished.
+     */
+    @Value("${validation.jobs.ttl:1h}")
+    Duration ttl;
+
+    private final RandomBasedGenerator generator = Generators.randomBasedGenerator();
+
+    /**
+     * The progress of the running jobs, which is only kept in memory, as it changes too often to be stored.
+     */
+    private final Map<String, DownloadProgress> progress = new ConcurrentHashMap<>();
+
+    /**
+     * A validation to be executed asynchronously.
+     */
+    @FunctionalInterface
+    public interface Validation {
+
+        /**
+         * Executes the validation.
+         *
+         * @param progress where the progress of downloading the CSV file, if any, is to be reported
+         * @return the validation response, or an error response
+         * @throws Exception if the validation could not be executed
+         */
+        ResponseObject validate(DownloadProgress progress) throws Exception;
+    }
+
+    /**
+     * Any job which was still queued or running when the server stopped will never finish,
+     * so it is marked as failed.
+     */
+    @PostConstruct
+    public void failInterruptedJobs() {
+        final long now = System.currentTimeMillis();
+        for (final ValidationJob job : jobStore.list()) {
+            if (job.getStatus() == ValidationJob.Status.QUEUED || job.getStatus() == ValidationJob.Status.RUNNING) {
+                jobStore.put(job.failed(new ErrorResponse(ErrorResponse.Code.UNEXPECTED_ERROR, "Validation was interrupted by a server restart"), now));
+            }
+        }
+    }
+
+    /**
+     * Submits a validation to be executed asynchronously.
+     *
+     * @param schemaId the id of the schema being validated against
+     * @param validation the validation to execute
+     * @return the newly queued job
+     * @throws com.evolvedbinary.bbl.validator.executor.ExecutorSaturatedException if the validation executor cannot accept the job
+     */
+    public ValidationJob submit(final String schemaId, final Validation validation) {
+        final ValidationJob queued = ValidationJob.queued(generator.generate().toString(), schemaId, System.currentTimeMillis());
+        jobStore.put(queued);
+
+        try {
+            validationExecutor.execute(() -> run(queued, validation));
+        } catch (final RuntimeException e) {
+            jobStore.remove(queued.getId());
+            throw e;
+        }
+
+        LOG.trace("Submitted validation job: {}", queued.getId());
+        return queued;
+    }
+
+    private void run(final ValidationJob queued, final Validation validation) {
+        jobStore.put(queued.running());
+
+        final DownloadProgress downloadProgress = new DownloadProgress();
+        progress.put(queued.getId(), downloadProgress);
+
+        ValidationJob finished;
+        try {
+            final ResponseObject response = validation.validate(downloadProgress);
+            finished = switch (response) {
+                case ValidationResponse validationResponse -> queued.completed(validationResponse, System.currentTimeMillis());
+                case ErrorResponse errorResponse -> queued.failed(errorResponse, System.currentTimeMillis());
+                case ValidationJob job -> throw new IllegalStateException("Validation produced a job: " + job.getId());
+            };
+        } catch (final Exception e) {
+            LOG.error("Validation job {} failed", queued.getId(), e);
+            finished = queued.failed(new ErrorResponse(ErrorResponse.Code.UNEXPECTED_ERROR, "Validation failed: " + e.getMessage()), System.currentTimeMillis());
+        }
+
+        jobStore.put(finished);
+        progress.remove(queued.getId());
+        LOG.trace("Validation job {} finished: {}", finished.getId(), finished.getStatus());
+    }
+
+    /**
+     * Retrieves the current state of a job.
+     *
+     * @param id the id of the job
+     * @return the job, or null if there is no such job or it has expired
+     */
+    public @Nullable ValidationJob getJob(final String id) {
+        final ValidationJob job = jobStore.get(id);
+        if (job == null || job.getStatus() != ValidationJob.Status.RUNNING) {
+            return job;
+        }
+
+        final DownloadProgress downloadProgress = progress.get(id);
+        if (downloadProgress == null || downloadProgress.getBytesReceived() == 0) {
+            return job;
+        }
+        final long contentLength = downloadProgress.getContentLength();
+        return job.withProgress(new JobProgress(downloadProgress.getBytesReceived(), contentLength >= 0 ? contentLength : null));
+    }
+
+    /**
+     * Removes jobs which finished longer ago than the configured TTL.
+     */
+    @Scheduled(fixedDelay = "${validation.jobs.eviction-interval:1m}")
+    void evictExpiredJobs() {
+        final long expiredBefore = System.currentTimeMillis() - ttl.toMillis();
+        for (final ValidationJob job : jobStore.list()) {
+            if (job.getCompletedAt() != null && job.getCompletedAt() < expiredBefore) {
+                jobStore.remove(job.getId());
+                LOG.trace("Evicted expired validation job: {}", job.getId());
+            }
+        }
+    }
+}
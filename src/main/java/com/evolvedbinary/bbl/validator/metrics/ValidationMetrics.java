@@ -0,0 +1,304 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.metrics;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.filter.AdmissionControl;
+import com.evolvedbinary.bbl.validator.service.CompiledSchema;
+import com.evolvedbinary.bbl.validator.service.SpooledFile;
+import io.micronaut.core.annotation.Nullable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records metrics about downloading, spooling and validating CSV files, so that the
+ * time spent in each can be told apart.
+ *
+ * Validation metrics are tagged by schema id and by the {@link InputMode} the CSV was provided by.
+ */
+@Singleton
+public class ValidationMetrics {
+
+    private static final String TAG_SCHEMA = "schema";
+    private static final String TAG_MODE = "mode";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String TAG_SOURCE = "source";
+    private static final String TAG_REASON = "reason";
+
+    /**
+     * How a CSV file was provided for validation.
+     */
+    public enum InputMode {
+        /**
+         * A URL given in the query string
+         */
+        URL,
+
+        /**
+         * The body of the request
+         */
+        BODY,
+
+        /**
+         * A file uploaded as part of a multipart request
+         */
+        UPLOAD,
+
+        /**
+         * A URL given in a form
+         */
+        FORM,
+
+        /**
+         * A URL given in a batch
+         */
+        BATCH,
+
+        /**
+         * The validation view
+         */
+        VIEW,
+
+        /**
+         * A CSV file forwarded from another node of the cluster
+         */
+        CLUSTER;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The outcome of downloading a CSV file.
+     */
+    public enum DownloadOutcome {
+        /**
+         * The file was downloaded in full
+         */
+        DOWNLOADED,
+
+        /**
+         * The file had not changed, and a previously downloaded copy was reused
+         */
+        NOT_MODIFIED,
+
+        /**
+         * The file could not be downloaded
+         */
+        FAILED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public ValidationMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a validation performed by the CSV Validator engine.
+     *
+     * @param schemaId the id of the schema
+     * @param mode how the CSV file was provided
+     * @param durationNanos how long the validation took, in nanoseconds
+     * @param bytes the size of the CSV file
+     * @param rows the number of rows in the CSV file
+     * @param response the result of the validation
+     */
+    public void recordValidation(final String schemaId, final InputMode mode, final long durationNanos, final long bytes,
+            final long rows, final ValidationResponse response) {
+        Timer.builder("bbl.validation.duration")
+                .description("Time taken to validate a CSV file")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag, TAG_OUTCOME, response.isPassed() ? "passed" : "failed")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("bbl.validation.size")
+                .description("Size of the CSV files validated")
+                .baseUnit("bytes")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                .register(meterRegistry)
+                .record(bytes);
+
+        Counter.builder("bbl.validation.rows")
+                .description("Number of CSV rows validated")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                .register(meterRegistry)
+                .increment(rows);
+
+        if (durationNanos > 0) {
+            DistributionSummary.builder("bbl.validation.throughput")
+                    .description("Rows validated per second, for each CSV file")
+                    .baseUnit("rows")
+                    .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                    .register(meterRegistry)
+                    .record(rows * 1_000_000_000d / durationNanos);
+        }
+
+        // the failures in a response are limited to validation.max-errors, so this cannot count beyond it
+        DistributionSummary.builder("bbl.validation.failures.reported")
+                .description("Number of failures reported for each CSV file, at most validation.max-errors")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(response.getFailures().size());
+
+        if (!response.isUtf8Valid()) {
+            Counter.builder("bbl.validation.utf8.invalid")
+                    .description("Number of CSV files which were not valid UTF-8")
+                    .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Validates a CSV file with the CSV Validator engine, timing the validation and recording it.
+     *
+     * @param schemaId the id of the schema
+     * @param mode how the CSV file was provided
+     * @param csvFile the CSV file
+     * @param compiledSchema the schema the file is validated against
+     * @param validation performs the validation
+     * @return the result of the validation
+     */
+    public ValidationResponse timeValidation(final String schemaId, final InputMode mode, final SpooledFile csvFile,
+            @Nullable final CompiledSchema compiledSchema, final Supplier<ValidationResponse> validation) {
+        final long startTime = System.nanoTime();
+        final ValidationResponse response = validation.get();
+        final long duration = System.nanoTime() - startTime;
+        recordValidation(schemaId, mode, duration, csvFile.size(), rows(csvFile, compiledSchema), response);
+        return response;
+    }
+
+    /**
+     * Returns the number of data rows in a CSV file, excluding the header unless the schema
+     * declares {@code @noHeader}.
+     *
+     * The count is taken from the line endings seen while spooling the file, so a quoted
+     * value which spans several lines is counted more than once.
+     *
+     * @param csvFile the CSV file
+     * @param compiledSchema the schema the file is validated against
+     * @return the number of rows
+     */
+    private static long rows(final SpooledFile csvFile, @Nullable final CompiledSchema compiledSchema) {
+        if (compiledSchema != null && compiledSchema.isNoHeader()) {
+            return csvFile.lines();
+        }
+        return Math.max(0, csvFile.lines() - 1);
+    }
+
+    /**
+     * Records a validation which was answered from the validation result cache.
+     *
+     * @param schemaId the id of the schema
+     * @param mode how the CSV file was provided
+     */
+    public void recordCachedValidation(final String schemaId, final InputMode mode) {
+        Counter.builder("bbl.validation.cached")
+                .description("Number of validations answered from the validation result cache")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a validation which was forwarded to the node of the cluster which owns the CSV file.
+     *
+     * @param schemaId the id of the schema
+     * @param mode how the CSV file was provided
+     * @param forwarded true if the owning node validated the CSV file, false if it could not be reached and the CSV file was validated locally
+     */
+    public void recordForwardedValidation(final String schemaId, final InputMode mode, final boolean forwarded) {
+        Counter.builder("bbl.cluster.forwarded")
+                .description("Number of validations forwarded to the node of the cluster which owns the CSV file")
+                .tags(TAG_SCHEMA, schemaId, TAG_MODE, mode.tag, TAG_OUTCOME, forwarded ? "forwarded" : "failed")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a validation request which was rejected by admission control.
+     *
+     * @param reason why the request was rejected
+     */
+    public void recordRejectedRequest(final AdmissionControl.Reason reason) {
+        Counter.builder("bbl.admission.rejected")
+                .description("Number of validation requests rejected by admission control")
+                .tags(TAG_REASON, reason.getTag())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a download of a CSV file.
+     *
+     * @param outcome the outcome of the download
+     * @param durationNanos how long the download took, in nanoseconds
+     * @param bytes the size of the downloaded file
+     */
+    public void recordDownload(final DownloadOutcome outcome, final long durationNanos, final long bytes) {
+        Timer.builder("bbl.download.duration")
+                .description("Time taken to download a CSV file")
+                .tags(TAG_OUTCOME, outcome.tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        if (outcome != DownloadOutcome.FAILED) {
+            DistributionSummary.builder("bbl.download.size")
+                    .description("Size of the CSV files downloaded")
+                    .baseUnit("bytes")
+                    .tags(TAG_OUTCOME, outcome.tag)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    /**
+     * Records writing content to a temporary file.
+     *
+     * @param source where the content came from, e.g. "body" or "download"
+     * @param durationNanos how long writing the file took, in nanoseconds. For a download this excludes
+     *                      the time spent receiving it, which is recorded by {@link #recordDownload}
+     * @param bytes the size of the file
+     */
+    public void recordSpool(final String source, final long durationNanos, final long bytes) {
+        Timer.builder("bbl.spool.duration")
+                .description("Time taken to write content to a temporary file")
+                .tags(TAG_SOURCE, source)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("bbl.spool.size")
+                .description("Size of the temporary files written")
+                .baseUnit("bytes")
+                .tags(TAG_SOURCE, source)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.io.PrecompressedContent;
+import net.jcip.annotations.Immutable;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A CSV Schema which has been read, hashed and analysed once at load time.
+ *
+ * This is not a parsed form of the schema for the CSV Validator engine. The engine's Java API
+ * only accepts a path to a schema file, which it reads and parses again on every validation.
+ * What is "compiled" here is what the application itself needs: the content, its SHA-256 hash,
+ * its compressed forms, and the prolog directives and column definitions, which are found by
+ * matching the schema's text rather than by the engine's parser. It also keeps the path of a
+ * file with exactly this content for the engine to read, so that nothing on the request path
+ * reads the schema file in the schema directory or re-derives these.
+ */
+@Immutable
+public final class CompiledSchema {
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("^version\\s+(\\S+)");
+    private static final Pattern DIRECTIVE_PATTERN = Pattern.compile("@(\\w+)(?:\\s+('[^']*'|\\S+))?");
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("^(\"[^\"]*\"|[^\\s:@\"]+)\\s*:(.*)$");
+    private static final Pattern BLOCK_COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL_PATTERN = Pattern.compile("\"[^\"]*\"");
+
+    /**
+     * Rules which look beyond the row being validated, either at other rows or at the file system.
+     */
+    private static final Pattern NON_ROW_LOCAL_RULE_PATTERN = Pattern.compile("\\b(?:unique|identical|fileExists|fileCount|checksum|integrityCheck)\\b");
+
+    private final String id;
+    private final Path schemaFilePath;
+    private final String schemaFile;
+    private final String content;
+    private final String contentHash;
+    private final PrecompressedContent precompressedContent;
+    private final String schemaVersion;
+    private final int totalColumns;
+    private final boolean noHeader;
+    private final char separator;
+    private final Map<String, String> columnRules;
+    private final List<String> columnNames;
+    private final boolean rowLocal;
+
+    private CompiledSchema(final String id, final Path schemaFilePath, final Path engineSchemaFilePath,
+            final String content, final String contentHash, final String schemaVersion, final int totalColumns, final boolean noHeader, final char separator,
+            final Map<String, String> columnRules, final boolean rowLocal) {
+        this.id = id;
+        this.schemaFilePath = schemaFilePath;
+        this.schemaFile = engineSchemaFilePath.toString();
+        this.content = content;
+        this.contentHash = contentHash;
+        this.precompressedContent = PrecompressedContent.of(content.getBytes(StandardCharsets.UTF_8), contentHash);
+        this.schemaVersion = schemaVersion;
+        this.totalColumns = totalColumns;
+        this.noHeader = noHeader;
+        this.separator = separator;
+        this.columnRules = Collections.unmodifiableMap(columnRules);
+        this.columnNames = List.copyOf(columnRules.keySet());
+        this.rowLocal = rowLocal;
+    }
+
+    /**
+     * Compiles a CSV Schema.
+     *
+     * @param id the id of the schema
+     * @param schemaFilePath the path of the schema file
+     * @param content the content of the schema file
+     * @return the compiled schema
+     */
+    public static CompiledSchema compile(final String id, final Path schemaFilePath, final String content) {
+        return compile(id, schemaFilePath, schemaFilePath, content, sha256Hex(content));
+    }
+
+    /**
+     * Compiles a CSV Schema whose content has been written to a file of its own, which never
+     * changes, for the CSV Validator engine to read.
+     *
+     * @param id the id of the schema
+     * @param schemaFilePath the path of the schema file
+     * @param engineSchemaFilePath the path of the file with the content, for the engine to read
+     * @param content the content of the schema file
+     * @param contentHash the SHA-256 hash of the content
+     * @return the compiled schema
+     */
+    static CompiledSchema compile(final String id, final Path schemaFilePath, final Path engineSchemaFilePath,
+            final String content, final String contentHash) {
+        String schemaVersion = null;
+        int totalColumns = -1;
+        boolean noHeader = false;
+        boolean globalChecks = false;
+        char separator = ',';
+        final Map<String, String> columnRules = new LinkedHashMap<>();
+        String lastColumn = null;
+
+        final String uncommented = BLOCK_COMMENT_PATTERN.matcher(content).replaceAll("");
+        for (final String rawLine : uncommented.split("\\R")) {
+            final String line = stripLineComment(rawLine).strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            if (schemaVersion == null) {
+                final Matcher versionMatcher = VERSION_PATTERN.matcher(line);
+                if (versionMatcher.find()) {
+                    schemaVersion = versionMatcher.group(1);
+                    continue;
+                }
+            }
+
+            if (line.charAt(0) == '@' && lastColumn == null) {
+                // global directives in the prolog
+                final Matcher directiveMatcher = DIRECTIVE_PATTERN.matcher(line);
+                while (directiveMatcher.find()) {
+                    final String directive = directiveMatcher.group(1);
+                    final String argument = directiveMatcher.group(2);
+                    switch (directive) {
+                        case "totalColumns" -> totalColumns = parseTotalColumns(argument);
+                        case "noHeader" -> noHeader = true;
+                        case "separator" -> separator = parseSeparator(argument);
+                        case "integrityCheck" -> globalChecks = true;
+                        default -> { }
+                    }
+                }
+                continue;
+            }
+
+            final Matcher columnMatcher = COLUMN_PATTERN.matcher(line);
+            if (columnMatcher.matches()) {
+                lastColumn = unquote(columnMatcher.group(1));
+                columnRules.put(lastColumn, columnMatcher.group(2).strip());
+            } else if (lastColumn != null) {
+                // continuation of the previous column definition
+                columnRules.merge(lastColumn, line, (previous, continuation) -> previous + ' ' + continuation);
+            }
+        }
+
+        return new CompiledSchema(id, schemaFilePath, engineSchemaFilePath, content, contentHash, schemaVersion, totalColumns, noHeader,
+                separator, columnRules, !globalChecks && isRowLocal(columnRules));
+    }
+
+    private static boolean isRowLocal(final Map<String, String> columnRules) {
+        for (final String rule : columnRules.values()) {
+            // string literals, e.g. in is("...") or regex("..."), may contain anything
+            final String unquoted = STRING_LITERAL_PATTERN.matcher(rule).replaceAll("\"\"");
+            if (NON_ROW_LOCAL_RULE_PATTERN.matcher(unquoted).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripLineComment(final String line) {
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length() - 1; i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (!inQuotes && c == '/' && line.charAt(i + 1) == '/' && (i == 0 || line.charAt(i - 1) != ':')) {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static int parseTotalColumns(final String argument) {
+        if (argument == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(argument);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static char parseSeparator(final String argument) {
+        if (argument == null) {
+            return ',';
+        }
+        final String separator = unquote(argument.replace('\'', '"'));
+        if (separator.equals("TAB") || separator.equals("\\t")) {
+            return '\t';
+        }
+        return separator.isEmpty() ? ',' : separator.charAt(0);
+    }
+
+    private static String unquote(final String value) {
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    static String sha256Hex(final String content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the key under which this compiled schema is cached, which changes whenever
+     * the content of the schema changes.
+     *
+     * @return the schema id and content hash
+     */
+    public String getCacheKey() {
+        return id + '@' + contentHash;
+    }
+
+    public Path getSchemaFilePath() {
+        return schemaFilePath;
+    }
+
+    /**
+     * Returns the path of a file with the compiled content of the schema, in the form expected by
+     * the CSV Validator engine.
+     *
+     * Unlike the schema file itself, which may be changed or be part way through being written
+     * at any time, this file always has exactly the content of this compiled schema. The engine
+     * still reads and parses it on every validation.
+     *
+     * @return the path of the file for the engine to read
+     */
+    public String getSchemaFile() {
+        return schemaFile;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Returns the content of the schema, encoded as UTF-8, along with its compressed forms.
+     *
+     * @return the precompressed content, identified by the content hash
+     */
+    public PrecompressedContent getPrecompressedContent() {
+        return precompressedContent;
+    }
+
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * Returns the value of the {@code @totalColumns} directive.
+     *
+     * @return the number of columns, or -1 if the schema does not declare it
+     */
+    public int getTotalColumns() {
+        return totalColumns;
+    }
+
+    public boolean isNoHeader() {
+        return noHeader;
+    }
+
+    public char getSeparator() {
+        return separator;
+    }
+
+    /**
+     * Returns the column definitions of the schema, in declaration order.
+     *
+     * @return a map of column name to column rule text
+     */
+    public Map<String, String> getColumnRules() {
+        return columnRules;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns whether every rule of the schema can be checked by looking only at the row
+     * being validated, so that the rows of a CSV file may be validated in any order.
+     *
+     * A schema is not row-local if it uses {@code unique}, {@code identical}, or any of the
+     * file checks, such as {@code fileExists} or {@code checksum}.
+     *
+     * @return true if the schema only has row-local rules
+     */
+    public boolean isRowLocal() {
+        return rowLocal;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.io.MappedFile;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a CSV file into chunks at record boundaries, so that each chunk can be validated
+ * on its own.
+ *
+ * A record ends at a line feed which is not within a quoted value, so values which span
+ * several lines are never split. Splitting only needs to find line feeds and quotes,
+ * which are single bytes in UTF-8, so the file is scanned as bytes without decoding it,
+ * through a memory mapping. A file may instead be split in the same pass as its
+ * structure is scanned by {@link CsvStructureScanner}, through a {@link Scanner}.
+ */
+final class CsvSplitter {
+
+    /**
+     * A chunk of a CSV file.
+     *
+     * @param start the offset of the first byte of the chunk
+     * @param end the offset after the last byte of the chunk
+     * @param rowsBefore the number of rows, excluding the header, before the chunk
+     */
+    record Chunk(long start, long end, int rowsBefore) {
+    }
+
+    /**
+     * The chunks of a CSV file.
+     *
+     * @param headerEnd the offset after the header row, or 0 if the file has no header row
+     * @param chunks the chunks of the file after the header row, in order
+     */
+    record Split(long headerEnd, List<Chunk> chunks) {
+    }
+
+    private CsvSplitter() {
+    }
+
+    /**
+     * Splits a CSV file into chunks.
+     *
+     * @param csvFile the CSV file
+     * @param header true if the first row of the file is a header row
+     * @param chunkSize the minimum size of each chunk; the last chunk may be smaller
+     * @return the chunks of the file
+     * @throws IOException if the file could not be read
+     */
+    static Split split(final Path csvFile, final boolean header, final long chunkSize) throws IOException {
+        final Scanner scanner = new Scanner(header, chunkSize);
+        final long size = MappedFile.forEachSegment(csvFile, (segment, offset) -> {
+            final int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                final byte b = segment.get(i);
+                if (b == '"') {
+                    // an escaped quote ("") toggles twice, so leaves the state unchanged
+                    scanner.inQuotes = !scanner.inQuotes;
+                } else if (b == '\n' && !scanner.inQuotes) {
+                    scanner.recordEnd(offset + i + 1);
+                }
+            }
+            return true;
+        });
+        return scanner.finish(size);
+    }
+
+    /**
+     * The state of splitting a file, which is carried from one mapped segment to the next.
+     *
+     * Whoever scans the file tracks whether it is within a quoted value, and tells the scanner
+     * where each record ends.
+     */
+    static final class Scanner {
+        private final long chunkSize;
+        private final List<Chunk> chunks = new ArrayList<>();
+        private long headerEnd;
+        private long chunkStart;
+        private int chunkRowsBefore;
+        private int rows;
+        private boolean inQuotes;
+        private Split split;
+
+        Scanner(final boolean header, final long chunkSize) {
+            this.chunkSize = chunkSize;
+            this.headerEnd = header ? -1 : 0;
+        }
+
+        void recordEnd(final long recordEnd) {
+            if (headerEnd < 0) {
+                headerEnd = recordEnd;
+                chunkStart = recordEnd;
+                return;
+            }
+            rows++;
+            if (recordEnd - chunkStart >= chunkSize) {
+                chunks.add(new Chunk(chunkStart, recordEnd, chunkRowsBefore));
+                chunkStart = recordEnd;
+                chunkRowsBefore = rows;
+            }
+        }
+
+        Split finish(final long size) {
+            if (headerEnd < 0) {
+                // the file is only a header row
+                split = new Split(size, List.of());
+            } else {
+                if (chunkStart < size) {
+                    chunks.add(new Chunk(chunkStart, size, chunkRowsBefore));
+                }
+                split = new Split(headerEnd, chunks);
+            }
+            return split;
+        }
+
+        /**
+         * Returns the chunks of the file, once it has been scanned to its end.
+         *
+         * @return the chunks of the file, or null if it has not been scanned to its end
+         */
+        @Nullable Split split() {
+            return split;
+        }
+    }
+
+    /**
+     * Writes a chunk of a CSV file, preceded by its header row, to a file of its own.
+     *
+     * @param csvFile the CSV file
+     * @param split the chunks of the CSV file
+     * @param chunk the chunk to write
+     * @param target the file to write the chunk to
+     * @throws IOException if the chunk could not be written
+     */
+    static void writeChunk(final Path csvFile, final Split split, final Chunk chunk, final Path target) throws IOException {
+        try (final FileChannel source = FileChannel.open(csvFile, StandardOpenOption.READ);
+             final FileChannel destination = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(source, 0, split.headerEnd(), destination);
+            transfer(source, chunk.start(), chunk.end(), destination);
+        }
+    }
+
+    private static void transfer(final FileChannel source, final long start, final long end, final FileChannel destination) throws IOException {
+        long position = start;
+        while (position < end) {
+            final long transferred = source.transferTo(position, end - position, destination);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file at offset " + position);
+            }
+            position += transferred;
+        }
+    }
+}
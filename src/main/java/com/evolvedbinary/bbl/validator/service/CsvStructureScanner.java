@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.io.MappedFile;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scans the structure of a CSV file, counting the columns of each row, before it is validated.
+ *
+ * A file whose rows mostly have the wrong number of columns, or whose quotes are never closed,
+ * would otherwise make the CSV Validator engine report a failure for nearly every row. Like
+ * {@link CsvSplitter}, the scan only needs to find separators, line feeds and quotes, which are
+ * single bytes in UTF-8, so the file is scanned as bytes without decoding it, through a memory
+ * mapping.
+ */
+final class CsvStructureScanner {
+
+    /**
+     * A row which does not have the expected number of columns.
+     *
+     * @param row the number of the row, excluding the header, starting from 1
+     * @param columns the number of columns of the row
+     */
+    record InvalidRow(long row, int columns) {
+    }
+
+    /**
+     * The structure of a CSV file.
+     *
+     * @param headerColumns the number of columns of the header row, or -1 if the file has no header row
+     * @param rows the number of rows, excluding the header
+     * @param invalidRows the number of rows, excluding the header, which do not have the expected number of columns
+     * @param invalidRowExamples the first of the invalid rows, in order
+     * @param unterminatedQuoteRow the row in which a quoted value is never closed, 0 for the header row,
+     *     or -1 if every quoted value is closed
+     * @param crlfRows the number of rows, including the header, which end with a carriage return and line feed
+     * @param lfRows the number of rows, including the header, which end with a line feed alone
+     */
+    record Structure(int headerColumns, long rows, long invalidRows, List<InvalidRow> invalidRowExamples,
+            long unterminatedQuoteRow, long crlfRows, long lfRows) {
+
+        boolean hasMixedLineEndings() {
+            return crlfRows > 0 && lfRows > 0;
+        }
+    }
+
+    private CsvStructureScanner() {
+    }
+
+    /**
+     * Scans the structure of a CSV file.
+     *
+     * Blank rows are counted, but their columns are not checked.
+     *
+     * @param csvFile the CSV file
+     * @param separator the separator between the values of a row
+     * @param header true if the first row of the file is a header row
+     * @param expectedColumns the number of columns each row is expected to have, or -1 to not check the rows
+     * @param maxExamples the maximum number of invalid rows to keep as examples
+     * @return the structure of the file
+     * @throws IOException if the file could not be read
+     */
+    static Structure scan(final Path csvFile, final char separator, final boolean header, final int expectedColumns,
+            final int maxExamples) throws IOException {
+        return scan(csvFile, separator, header, expectedColumns, maxExamples, null);
+    }
+
+    /**
+     * Scans the structure of a CSV file, and splits it into chunks in the same pass, so that a
+     * file which is then validated in chunks is only read once beforehand.
+     *
+     * Once the whole file has been scanned, its chunks are returned by {@link CsvSplitter.Scanner#split()}.
+     *
+     * @param csvFile the CSV file
+     * @param separator the separator between the values of a row
+     * @param header true if the first row of the file is a header row
+     * @param expectedColumns the number of columns each row is expected to have, or -1 to not check the rows
+     * @param maxExamples the maximum number of invalid rows to keep as examples
+     * @param splitter splits the file into chunks, or null to not split it
+     * @return the structure of the file
+     * @throws IOException if the file could not be read
+     */
+    static Structure scan(final Path csvFile, final char separator, final boolean header, final int expectedColumns,
+            final int maxExamples, @Nullable final CsvSplitter.Scanner splitter) throws IOException {
+        final Scanner scanner = new Scanner(header, expectedColumns, maxExamples);
+        final long size = MappedFile.forEachSegment(csvFile, (segment, offset) -> {
+            final int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                final byte b = segment.get(i);
+                if (b == '"') {
+                    // an escaped quote ("") toggles twice, so leaves the state unchanged
+                    scanner.inQuotes = !scanner.inQuotes;
+                } else if (!scanner.inQuotes) {
+                    if (b == '\n') {
+                        scanner.recordEnd(true);
+                        if (splitter != null) {
+                            splitter.recordEnd(offset + i + 1);
+                        }
+                        continue;
+                    } else if (b == separator) {
+                        scanner.columns++;
+                    }
+                }
+                scanner.previous = b;
+                scanner.recordLength++;
+            }
+            return true;
+        });
+        if (splitter != null) {
+            splitter.finish(size);
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * The state of scanning a file, which is carried from one mapped segment to the next.
+     */
+    private static final class Scanner {
+        private final int expectedColumns;
+        private final int maxExamples;
+        private final List<InvalidRow> invalidRowExamples = new ArrayList<>();
+        private int headerColumns;
+        private long rows;
+        private long invalidRows;
+        private long crlfRows;
+        private long lfRows;
+        private int columns = 1;
+        private long recordLength;
+        private byte previous;
+        private boolean inQuotes;
+
+        Scanner(final boolean header, final int expectedColumns, final int maxExamples) {
+            this.expectedColumns = expectedColumns;
+            this.maxExamples = maxExamples;
+            this.headerColumns = header ? -2 : -1;
+        }
+
+        void recordEnd(final boolean lineFeed) {
+            if (lineFeed) {
+                if (previous == '\r') {
+                    crlfRows++;
+                } else {
+                    lfRows++;
+                }
+            }
+
+            final boolean blank = recordLength == 0 || (recordLength == 1 && previous == '\r');
+            if (headerColumns == -2) {
+                headerColumns = columns;
+            } else {
+                rows++;
+                if (expectedColumns > 0 && !blank && columns != expectedColumns) {
+                    invalidRows++;
+                    if (invalidRowExamples.size() < maxExamples) {
+                        invalidRowExamples.add(new InvalidRow(rows, columns));
+                    }
+                }
+            }
+
+            columns = 1;
+            recordLength = 0;
+            previous = 0;
+        }
+
+        Structure finish() {
+            long unterminatedQuoteRow = -1;
+            if (inQuotes) {
+                // the quoted value starts in the row which was never ended
+                unterminatedQuoteRow = headerColumns == -2 ? 0 : rows + 1;
+            }
+            if (recordLength > 0 || inQuotes) {
+                // the last row does not end with a line feed
+                recordEnd(false);
+            }
+            return new Structure(Math.max(headerColumns, -1), rows, invalidRows, List.copyOf(invalidRowExamples),
+                    unterminatedQuoteRow, crlfRows, lfRows);
+        }
+    }
+}
@@ -16,7 +16,16 @@
 package com.evolvedbinary.bbl.validator.service;
 
 import com.evolvedbinary.bbl.validator.dto.ValidationFailure;
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.evolvedbinary.bbl.validator.executor.ValidationExecutorFactory;
+import com.evolvedbinary.bbl.validator.io.Utf8Error;
+import com.evolvedbinary.bbl.validator.io.Utf8Validator;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.ReadableBytes;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,72 +33,560 @@ import uk.gov.nationalarchives.csv.validator.api.java.CsvValidatorJavaBridge;
 import uk.gov.nationalarchives.csv.validator.api.java.FailMessage;
 import uk.gov.nationalarchives.csv.validator.api.java.Substitution;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 @Singleton
 public class CsvValidationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CsvValidationService.class);
 
+    private static final String UTF8_ERROR_PREFIX = "[UTF-8 Error]";
+    private static final String STRUCTURE_ERROR_PREFIX = "[Structure Error]";
+    private static final int STRUCTURE_EXAMPLES = 5;
+    private static final Pattern ROW_PATTERN = Pattern.compile("\\brow: \\d+");
+
     @Inject
     private SchemaService schemaService;
 
-    public ValidationResult validateCsvFile(final Path csvFilePath, final String schemaId) {
-        final String schemaFilePath = String.valueOf(schemaService.getSchemaFilePath(schemaId));
+    @Inject
+    private SpoolDirectory spoolDirectory;
+
+    @Inject
+    private ValidationResultCache validationResultCache;
+
+    @Inject
+    private ValidationMetrics validationMetrics;
+
+    @Inject
+    @Named(ValidationExecutorFactory.VALIDATION_CHUNKS)
+    private ForkJoinPool chunksPool;
+
+    /**
+     * Whether large CSV files are validated in chunks in parallel, when their schema is row-local.
+     */
+    @Value("${validation.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    /**
+     * The size from which a CSV file is validated in chunks.
+     */
+    @Value("${validation.parallel.min-size:64MB}")
+    @ReadableBytes
+    private long parallelMinSize;
+
+    /**
+     * The size of each chunk a CSV file is split into.
+     */
+    @Value("${validation.parallel.chunk-size:16MB}")
+    @ReadableBytes
+    private long parallelChunkSize;
+
+    /**
+     * Whether the structure of a CSV file is scanned before validation, so that a file whose
+     * quotes are never closed, or whose rows mostly have the wrong number of columns, is
+     * rejected without being passed to the CSV Validator engine.
+     */
+    @Value("${validation.structure.enabled:true}")
+    private boolean structureEnabled;
+
+    /**
+     * The proportion of rows with the wrong number of columns from which a CSV file is rejected.
+     */
+    @Value("${validation.structure.max-invalid-ratio:0.5}")
+    private double structureMaxInvalidRatio;
+
+    /**
+     * The maximum number of failures reported for any one CSV file, which is also
+     * the default when a request does not ask for fewer.
+     */
+    @Value("${validation.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Resolves the options requested for a validation against the server's limits.
+     *
+     * @param failFast true to stop validating at the first failure, or null for the default of false
+     * @param maxErrors the maximum number of failures to report, or null for the server's maximum
+     * @return the options to validate with
+     */
+    public ValidationOptions resolveOptions(@Nullable final Boolean failFast, @Nullable final Integer maxErrors) {
+        final int effectiveMaxErrors = maxErrors == null || maxErrors <= 0 ? this.maxErrors : Math.min(maxErrors, this.maxErrors);
+        return new ValidationOptions(failFast != null && failFast, effectiveMaxErrors);
+    }
+
+    /**
+     * Resolves the options requested for a validation whose failures are streamed to the client.
+     *
+     * As streamed failures are never held in memory all at once, the server's maximum does not apply.
+     *
+     * @param failFast true to stop validating at the first failure, or null for the default of false
+     * @param maxErrors the maximum number of failures to report, or null for no maximum
+     * @return the options to validate with
+     */
+    public ValidationOptions resolveStreamingOptions(@Nullable final Boolean failFast, @Nullable final Integer maxErrors) {
+        final int effectiveMaxErrors = maxErrors == null || maxErrors <= 0 ? Integer.MAX_VALUE : maxErrors;
+        return new ValidationOptions(failFast != null && failFast, effectiveMaxErrors);
+    }
+
+    /**
+     * Validates a CSV file whose encoding is not known, which the CSV Validator engine checks itself.
+     *
+     * @param csvFilePath the CSV file
+     * @param schemaId the id of the schema to validate against
+     * @param options the validation options
+     * @return the result of the validation
+     */
+    public ValidationResult validateCsvFile(final Path csvFilePath, final String schemaId, final ValidationOptions options) {
+        final CompiledSchema compiledSchema = getCompiledSchema(schemaId);
+        final long startTime = System.currentTimeMillis();
+        return validateCsvFile(csvFilePath, compiledSchema, null, options, startTime);
+    }
+
+    /**
+     * Validates a CSV file whose encoding was checked as it was spooled.
+     *
+     * The CSV Validator engine only checks the encoding again if the file is not UTF-8, so that
+     * it reports the failures in its own terms. If the request asked to fail fast, a file which
+     * is not UTF-8 is not passed to the engine at all, and the malformed sequences found whilst
+     * spooling are reported instead.
+     *
+     * @param csvFile the spooled CSV file
+     * @param schemaId the id of the schema to validate against
+     * @param options the validation options
+     * @return the result of the validation
+     */
+    public ValidationResult validateCsvFile(final SpooledFile csvFile, final String schemaId, final ValidationOptions options) {
+        final CompiledSchema compiledSchema = getCompiledSchema(schemaId);
+        final long startTime = System.currentTimeMillis();
+        if (!csvFile.isUtf8() && options.failFast()) {
+            return encodingFailures(csvFile.utf8Errors(), System.currentTimeMillis() - startTime, options.maxErrors());
+        }
+        return validateCsvFile(csvFile.path(), compiledSchema, csvFile.isUtf8(), options, startTime);
+    }
+
+    /**
+     * Validates a spooled CSV file, answering from the validation result cache if it was already
+     * validated against the same schema with the same options, and otherwise caching its result.
+     *
+     * @param csvFile the spooled CSV file
+     * @param schemaId the id of the schema to validate against
+     * @param options the validation options
+     * @param mode how the CSV file was provided, for metrics
+     * @param delegate validates the CSV file elsewhere, such as on another node of the cluster, returning
+     *                 null if it should be validated here; or null to always validate it here. The
+     *                 result of a delegated validation is not cached.
+     * @return the result of the validation
+     */
+    public ValidationResponse validateCached(final SpooledFile csvFile, final String schemaId, final ValidationOptions options,
+            final ValidationMetrics.InputMode mode, @Nullable final Supplier<ValidationResponse> delegate) {
+        final ValidationResponse cachedResponse = validationResultCache.get(csvFile, schemaId, options);
+        if (cachedResponse != null) {
+            validationMetrics.recordCachedValidation(schemaId, mode);
+            return cachedResponse;
+        }
+
+        if (delegate != null) {
+            final ValidationResponse delegatedResponse = delegate.get();
+            if (delegatedResponse != null) {
+                return delegatedResponse;
+            }
+        }
+
+        final ValidationResponse response = validationMetrics.timeValidation(schemaId, mode, csvFile, schemaService.getCompiledSchema(schemaId), () -> {
+            final ValidationResult result = validateCsvFile(csvFile, schemaId, options);
+            return new ValidationResponse(result.isPassed(), result.getFailures(), result.getExecutionTime(), result.isUtf8Valid(), result.isTruncated(), false);
+        });
+        validationResultCache.put(csvFile, schemaId, options, response);
+        return response;
+    }
+
+    private CompiledSchema getCompiledSchema(final String schemaId) {
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema(schemaId);
+        if (compiledSchema == null) {
+            throw new IllegalArgumentException("Schema not found with ID: " + schemaId);
+        }
+        return compiledSchema;
+    }
+
+    /**
+     * @param utf8 whether the file is UTF-8, or null if its encoding is not known, in which case the engine checks it
+     */
+    private ValidationResult validateCsvFile(final Path csvFilePath, final CompiledSchema compiledSchema, @Nullable final Boolean utf8,
+            final ValidationOptions options, final long startTime) {
+        final boolean validateUtf8Encoding = utf8 == null || !utf8;
+
+        // a file which may be validated in chunks is split in the same pass as its structure is scanned
+        final CsvSplitter.Scanner splitter = newSplitter(csvFilePath, compiledSchema, options);
+        final ValidationResult structureFailures = checkStructure(csvFilePath, compiledSchema, utf8, options, startTime, splitter);
+        if (structureFailures != null) {
+            return structureFailures;
+        }
+
+        final CsvSplitter.Split split = splitter != null ? split(csvFilePath, compiledSchema, splitter) : null;
+        if (split != null) {
+            final List<Path> chunkFiles = reserveChunkFiles(split);
+            if (chunkFiles != null) {
+                return validateChunks(csvFilePath, compiledSchema, split, chunkFiles, validateUtf8Encoding, options, startTime);
+            }
+        }
+
+        final List<FailMessage> errors = validate(csvFilePath, compiledSchema, options.failFast(), validateUtf8Encoding);
+        final long executionTime = System.currentTimeMillis() - startTime;
+        return processValidationMessages(errors, executionTime, options.maxErrors());
+    }
+
+    private List<FailMessage> validate(final Path csvFilePath, final CompiledSchema compiledSchema, final boolean failFast,
+            final boolean validateUtf8Encoding) {
         final Charset csvEncoding = StandardCharsets.UTF_8;
-        final boolean validateUtf8Encoding = true;
         final Charset csvSchemaEncoding = StandardCharsets.UTF_8;
-        final boolean failFast = false;
         final List<Substitution> pathSubstitutions = Collections.emptyList();
         final boolean enforceCaseSensitivePathChecks = false;
         final boolean trace = false;
         final boolean skipFileChecks = false;
 
         final CsvValidatorJavaBridge.ValidationRequest validationRequest = new CsvValidatorJavaBridge.ValidationRequest(
-                csvFilePath.toString(), csvEncoding, validateUtf8Encoding, schemaFilePath,
+                csvFilePath.toString(), csvEncoding, validateUtf8Encoding, compiledSchema.getSchemaFile(),
                 csvSchemaEncoding, true, failFast, pathSubstitutions,
                 enforceCaseSensitivePathChecks, trace, null, skipFileChecks, -1);
 
-        final long startTime = System.currentTimeMillis();
-        final CsvValidatorJavaBridge.ValidationResult result = CsvValidatorJavaBridge.validate(validationRequest);
-        final List<FailMessage> errors = result.errors();
+        return CsvValidatorJavaBridge.validate(validationRequest).errors();
+    }
+
+    private static ValidationResult encodingFailures(final List<Utf8Error> utf8Errors, final long executionTime, final int maxErrors) {
+        final List<ValidationFailure> failures = new ArrayList<>(Math.min(utf8Errors.size(), maxErrors));
+        for (final Utf8Error utf8Error : utf8Errors) {
+            if (failures.size() == maxErrors) {
+                break;
+            }
+            failures.add(new ValidationFailure(
+                UTF8_ERROR_PREFIX + " Malformed UTF-8 byte sequence at byte offset " + utf8Error.offset(),
+                (int) Math.min(utf8Error.line(), Integer.MAX_VALUE),
+                (int) Math.min(utf8Error.column(), Integer.MAX_VALUE)
+            ));
+        }
+
+        LOG.trace("CSV validation skipped - not UTF-8, Errors: {} ({}ms)", failures.size(), executionTime);
+
+        return new ValidationResult(false, failures, executionTime, false, utf8Errors.size() > failures.size());
+    }
+
+    /**
+     * Scans the structure of a CSV file, and rejects it if it is broken beyond what is worth
+     * validating row by row.
+     *
+     * A file is rejected if a quoted value is never closed, if its header row does not have the
+     * number of columns declared by {@code @totalColumns}, or if too many of its rows do not. A
+     * single summary of each problem is reported, rather than a failure for every row.
+     *
+     * @param utf8 whether the file is UTF-8, or null if its encoding is not known, in which case it is
+     *     only checked if the file is rejected
+     * @param splitter splits the file into chunks in the same pass, or null to not split it
+     * @return the failures of a rejected file, or null if it should be validated
+     */
+    private @Nullable ValidationResult checkStructure(final Path csvFilePath, final CompiledSchema compiledSchema, @Nullable final Boolean utf8,
+            final ValidationOptions options, final long startTime, @Nullable final CsvSplitter.Scanner splitter) {
+        if (!structureEnabled) {
+            return null;
+        }
+
+        final int totalColumns = compiledSchema.getTotalColumns();
+        final CsvStructureScanner.Structure structure;
+        try {
+            structure = CsvStructureScanner.scan(csvFilePath, compiledSchema.getSeparator(), !compiledSchema.isNoHeader(),
+                    totalColumns, STRUCTURE_EXAMPLES, splitter);
+        } catch (final IOException e) {
+            LOG.warn("Unable to scan the structure of {}, it will be validated in full: {}", csvFilePath, e.getMessage());
+            return null;
+        }
+
+        final List<ValidationFailure> failures = new ArrayList<>(4);
+        if (structure.unterminatedQuoteRow() >= 0) {
+            final long row = structure.unterminatedQuoteRow();
+            failures.add(new ValidationFailure(
+                STRUCTURE_ERROR_PREFIX + " Quoted value is not closed, starting in " + (row == 0 ? "the header" : "row: " + row),
+                toLine(row),
+                0
+            ));
+        }
+        if (totalColumns > 0 && structure.headerColumns() >= 0 && structure.headerColumns() != totalColumns) {
+            failures.add(new ValidationFailure(
+                STRUCTURE_ERROR_PREFIX + " Expected @totalColumns of " + totalColumns + " and found " + structure.headerColumns() + " in the header",
+                0,
+                0
+            ));
+        }
+        if (structure.invalidRows() > 0 && structure.invalidRows() >= structure.rows() * structureMaxInvalidRatio) {
+            final StringBuilder message = new StringBuilder(STRUCTURE_ERROR_PREFIX)
+                    .append(" Expected @totalColumns of ").append(totalColumns)
+                    .append(" and found a different number in ").append(structure.invalidRows())
+                    .append(" of ").append(structure.rows()).append(" rows, e.g.");
+            final List<CsvStructureScanner.InvalidRow> examples = structure.invalidRowExamples();
+            for (int i = 0; i < examples.size(); i++) {
+                final CsvStructureScanner.InvalidRow example = examples.get(i);
+                message.append(i == 0 ? " " : ", ").append(example.columns()).append(" in row: ").append(example.row());
+            }
+            failures.add(new ValidationFailure(message.toString(), toLine(examples.getFirst().row()), 0));
+        }
+
+        if (failures.isEmpty()) {
+            return null;
+        }
+
+        if (structure.hasMixedLineEndings()) {
+            failures.add(new ValidationFailure(
+                STRUCTURE_ERROR_PREFIX + " Mixed line endings, " + structure.crlfRows() + " rows end with CRLF and " + structure.lfRows() + " with LF",
+                0,
+                0
+            ));
+        }
+
         final long executionTime = System.currentTimeMillis() - startTime;
-        return processValidationMessages(errors, executionTime);
+        final boolean truncated = failures.size() > options.maxErrors();
+        final List<ValidationFailure> reported = truncated ? List.copyOf(failures.subList(0, options.maxErrors())) : failures;
+
+        LOG.trace("CSV validation rejected - broken structure, Errors: {} ({}ms)", reported.size(), executionTime);
+
+        return new ValidationResult(false, reported, executionTime, utf8 != null ? utf8 : isUtf8(csvFilePath), truncated);
+    }
+
+    private static boolean isUtf8(final Path csvFilePath) {
+        try {
+            return Utf8Validator.isValid(csvFilePath);
+        } catch (final IOException e) {
+            LOG.warn("Unable to check the encoding of {}, it is assumed to be UTF-8: {}", csvFilePath, e.getMessage());
+            return true;
+        }
+    }
+
+    private static int toLine(final long row) {
+        return (int) Math.min(row, Integer.MAX_VALUE);
     }
 
+    /**
+     * Creates the splitter for a CSV file which can be validated in chunks in parallel.
+     *
+     * Only files whose schema is {@link CompiledSchema#isRowLocal() row-local} can be split,
+     * as any other rule needs to see every row. Fail-fast validations are not split, as they
+     * are expected to stop early.
+     *
+     * @return the splitter, or null if the file should be validated in full
+     */
+    private @Nullable CsvSplitter.Scanner newSplitter(final Path csvFilePath, final CompiledSchema compiledSchema, final ValidationOptions options) {
+        if (!parallelEnabled || options.failFast() || !compiledSchema.isRowLocal()) {
+            return null;
+        }
+
+        try {
+            if (Files.size(csvFilePath) < parallelMinSize) {
+                return null;
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to split {} into chunks, it will be validated in full: {}", csvFilePath, e.getMessage());
+            return null;
+        }
+        return new CsvSplitter.Scanner(!compiledSchema.isNoHeader(), parallelChunkSize);
+    }
+
+    /**
+     * Splits a CSV file into chunks which can be validated in parallel, unless it was already
+     * split whilst its structure was scanned.
+     *
+     * @return the chunks of the file, or null if it should be validated in full
+     */
+    private @Nullable CsvSplitter.Split split(final Path csvFilePath, final CompiledSchema compiledSchema, final CsvSplitter.Scanner splitter) {
+        try {
+            final CsvSplitter.Split split = splitter.split() != null ? splitter.split()
+                    : CsvSplitter.split(csvFilePath, !compiledSchema.isNoHeader(), parallelChunkSize);
+            return split.chunks().size() > 1 ? split : null;
+        } catch (final IOException e) {
+            LOG.warn("Unable to split {} into chunks, it will be validated in full: {}", csvFilePath, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reserves space in the spool directory for the file of each chunk of a CSV file.
+     *
+     * The CSV file itself already holds space in the spool directory, so rather than waiting
+     * for more, the file is validated in full if there is not room for its chunks now.
+     *
+     * @return the paths of the chunk files, in the order of the chunks, or null if there was not room for them
+     */
+    private @Nullable List<Path> reserveChunkFiles(final CsvSplitter.Split split) {
+        final List<Path> chunkFiles = new ArrayList<>(split.chunks().size());
+        for (final CsvSplitter.Chunk chunk : split.chunks()) {
+            final Path chunkFile = spoolDirectory.newFile();
+            if (!spoolDirectory.tryReserve(chunkFile, split.headerEnd() + chunk.end() - chunk.start())) {
+                LOG.debug("Not enough space in the spool directory for {} chunks, the file will be validated in full", split.chunks().size());
+                chunkFiles.forEach(spoolDirectory::delete);
+                return null;
+            }
+            chunkFiles.add(chunkFile);
+        }
+        return chunkFiles;
+    }
+
+    private ValidationResult validateChunks(final Path csvFilePath, final CompiledSchema compiledSchema, final CsvSplitter.Split split,
+            final List<Path> chunkFiles, final boolean validateUtf8Encoding, final ValidationOptions options, final long startTime) {
+        final List<CsvSplitter.Chunk> chunks = split.chunks();
+        final List<Future<List<FailMessage>>> futures = new ArrayList<>(chunks.size());
+        final List<List<FailMessage>> chunkErrors = new ArrayList<>(chunks.size());
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                final CsvSplitter.Chunk chunk = chunks.get(i);
+                final Path chunkFile = chunkFiles.get(i);
+                futures.add(chunksPool.submit(() -> {
+                    CsvSplitter.writeChunk(csvFilePath, split, chunk, chunkFile);
+                    return validate(chunkFile, compiledSchema, false, validateUtf8Encoding);
+                }));
+            }
+            for (final Future<List<FailMessage>> future : futures) {
+                chunkErrors.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted whilst validating " + csvFilePath, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            } else if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException("Unable to validate " + csvFilePath, cause);
+        } finally {
+            for (final Future<List<FailMessage>> future : futures) {
+                future.cancel(false);
+            }
+            for (final Path chunkFile : chunkFiles) {
+                spoolDirectory.delete(chunkFile);
+            }
+        }
+        final long executionTime = System.currentTimeMillis() - startTime;
+        return mergeChunkValidationMessages(chunks, chunkErrors, executionTime, options.maxErrors());
+    }
+
+    /**
+     * Merges the failures of each chunk of a CSV file, in the order of the chunks, renumbering
+     * their rows to those of the whole file.
+     */
+    private ValidationResult mergeChunkValidationMessages(final List<CsvSplitter.Chunk> chunks, final List<List<FailMessage>> chunkMessages,
+            final long executionTime, final int maxErrors) {
+        final List<ValidationFailure> errors = new ArrayList<>();
+        int total = 0;
+        boolean utf8Valid = true;
 
-    private ValidationResult processValidationMessages(final List<FailMessage> messages, final long executionTime) {
+        for (int i = 0; i < chunks.size(); i++) {
+            final int rowsBefore = chunks.get(i).rowsBefore();
+            for (final FailMessage message : chunkMessages.get(i)) {
+                if (i > 0 && message.getLineNumber() < 1) {
+                    // failures which are not about a row, e.g. of the header, are reported by every chunk
+                    continue;
+                }
+                total++;
+                if (message.getMessage().startsWith(UTF8_ERROR_PREFIX)) {
+                    utf8Valid = false;
+                }
+                if (errors.size() < maxErrors) {
+                    errors.add(toValidationFailure(message, rowsBefore));
+                }
+            }
+        }
+
+        if (total == 0) {
+            LOG.trace("CSV validation successful - no errors, {} chunks ({}ms)", chunks.size(), executionTime);
+            return ValidationResult.success(executionTime);
+        }
+
+        LOG.trace("CSV validation completed - Valid: false, Errors: {} of {}, {} chunks ({}ms)", errors.size(), total, chunks.size(), executionTime);
+
+        return new ValidationResult(false, errors, executionTime, utf8Valid, total > maxErrors);
+    }
+
+    private static ValidationFailure toValidationFailure(final FailMessage message, final int rowsBefore) {
+        final int lineNumber = message.getLineNumber();
+        if (rowsBefore == 0 || lineNumber < 1) {
+            return new ValidationFailure(
+                message.getMessage(),
+                lineNumber,
+                message.getColumnIndex() + 1  // Add 1 for user display
+            );
+        }
+
+        final int fileLineNumber = lineNumber + rowsBefore;
+        return new ValidationFailure(
+            ROW_PATTERN.matcher(message.getMessage()).replaceFirst("row: " + fileLineNumber),
+            fileLineNumber,
+            message.getColumnIndex() + 1  // Add 1 for user display
+        );
+    }
+
+
+    private ValidationResult processValidationMessages(final List<FailMessage> messages, final long executionTime, final int maxErrors) {
         if (messages.isEmpty()) {
             LOG.trace("CSV validation successful - no errors ({}ms)", executionTime);
             return ValidationResult.success(executionTime);
         }
 
-        final List<ValidationFailure> errors = new ArrayList<>();
+        final boolean truncated = messages.size() > maxErrors;
         boolean utf8Valid = true;
 
         for (final FailMessage message : messages) {
             // if one error is a UTF-8 error, then the file is not valid
-            if(message.getMessage().startsWith("[UTF-8 Error]")) {
+            if(message.getMessage().startsWith(UTF8_ERROR_PREFIX)) {
                 utf8Valid = false;
+                break;
             }
-            final ValidationFailure error = new ValidationFailure(
-                message.getMessage(),
-                message.getLineNumber(),
-                message.getColumnIndex() + 1  // Add 1 for user display
-            );
-            errors.add(error);
-            LOG.trace("Validation error at line {}, column {}: {}", 
-                     message.getLineNumber(), message.getColumnIndex(), message.getMessage());
         }
 
-        LOG.trace("CSV validation completed - Valid: false, Errors: {} ({}ms)", errors.size(), executionTime);
+        // only the reported messages are kept, so that the rest can be garbage collected
+        final List<FailMessage> reported = truncated ? List.copyOf(messages.subList(0, maxErrors)) : messages;
+        final List<ValidationFailure> errors = new FailureList(reported);
+
+        LOG.trace("CSV validation completed - Valid: false, Errors: {} of {} ({}ms)", errors.size(), messages.size(), executionTime);
+
+        return new ValidationResult(false, errors, executionTime, utf8Valid, truncated);
+    }
+
+    /**
+     * A view of the engine's failure messages as {@link ValidationFailure}s.
+     *
+     * Each failure is only created as it is read, so that serialising or streaming the failures
+     * never requires a second copy of them all to be held in memory.
+     */
+    private static final class FailureList extends AbstractList<ValidationFailure> implements RandomAccess {
+        private final List<FailMessage> messages;
+
+        FailureList(final List<FailMessage> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public ValidationFailure get(final int index) {
+            return toValidationFailure(messages.get(index), 0);
+        }
 
-        return new ValidationResult(false, errors, executionTime, utf8Valid);
+        @Override
+        public int size() {
+            return messages.size();
+        }
     }
 
 
@@ -98,16 +595,18 @@ public class CsvValidationService {
         private final List<ValidationFailure> failures;
         private final long executionTime;
         private final boolean utf8Valid;
+        private final boolean truncated;
 
-        public ValidationResult(final boolean passed, final List<ValidationFailure> failures, final long executionTime, final boolean utf8Valid) {
+        public ValidationResult(final boolean passed, final List<ValidationFailure> failures, final long executionTime, final boolean utf8Valid, final boolean truncated) {
             this.passed = passed;
             this.failures = failures;
             this.executionTime = executionTime;
             this.utf8Valid = utf8Valid;
+            this.truncated = truncated;
         }
 
         public static ValidationResult success(final long executionTime) {
-            return new ValidationResult(true, Collections.emptyList(), executionTime, true);
+            return new ValidationResult(true, Collections.emptyList(), executionTime, true, false);
         }
 
         public boolean isPassed() {
@@ -123,5 +622,9 @@ public class CsvValidationService {
         }
 
         public boolean isUtf8Valid() { return utf8Valid; }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
     }
 }
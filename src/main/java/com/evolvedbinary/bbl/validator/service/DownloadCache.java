@@ -0,0 +1,228 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.io.Utf8Error;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import net.jcip.annotations.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a copy of downloaded files along with their HTTP cache validators
+ * (ETag and Last-Modified), so that a file can be fetched conditionally and,
+ * if it has not changed, reused rather than downloaded again.
+ *
+ * The cache is bounded by {@code download.cache.max-entries} and {@code download.cache.max-size},
+ * evicting the least recently used files first. The cache is only held in memory, so each instance
+ * keeps its files in an {@link InstanceDirectory} of its own, which is removed when it stops, or
+ * by the next instance to start if it did not stop cleanly.
+ */
+@Singleton
+public class DownloadCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadCache.class);
+    private static final String CACHE_DIR_NAME = "bbl-validator-download-cache";
+
+    /**
+     * A cached download.
+     *
+     * @param url the URL the file was downloaded from
+     * @param file the cached copy of the file
+     * @param size the size of the file in bytes
+     * @param sha256 the SHA-256 hash of the file
+     * @param lines the number of lines in the file
+     * @param utf8Errors the positions of the first malformed UTF-8 sequences in the file
+     * @param etag the ETag of the response, or null
+     * @param lastModified the Last-Modified date of the response, or null
+     */
+    public record Entry(String url, Path file, long size, String sha256, long lines, List<Utf8Error> utf8Errors, @Nullable String etag, @Nullable String lastModified) {
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxSize;
+    private final InstanceDirectory instanceDirectory;
+    private final Path cacheDir;
+
+    @GuardedBy("this")
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private long totalSize;
+
+    @Inject
+    public DownloadCache(@Value("${download.cache.enabled:true}") final boolean enabled,
+                         @Value("${download.cache.max-entries:100}") final int maxEntries,
+                         @Value("${download.cache.max-size:1GB}") @ReadableBytes final long maxSize,
+                         @Nullable @Value("${download.cache.directory}") final String directory) {
+        this.enabled = enabled && maxEntries > 0 && maxSize > 0;
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+
+        this.instanceDirectory = new InstanceDirectory(directory == null || directory.isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), CACHE_DIR_NAME)
+                : Paths.get(directory));
+        this.cacheDir = instanceDirectory.getDirectory();
+    }
+
+    /**
+     * Retrieves the cached download of a URL.
+     *
+     * @param url the URL
+     * @return the cached download, or null if there is none
+     */
+    public synchronized @Nullable Entry get(final String url) {
+        if (!enabled) {
+            return null;
+        }
+        return entries.get(url);
+    }
+
+    /**
+     * Caches a downloaded file. Nothing is cached if the response had no validators,
+     * as it could never be fetched conditionally.
+     *
+     * @param url the URL the file was downloaded from
+     * @param downloadedFile the downloaded file, which remains owned by the caller
+     * @param etag the ETag of the response, or null
+     * @param lastModified the Last-Modified date of the response, or null
+     */
+    public void put(final String url, final SpooledFile downloadedFile, @Nullable final String etag, @Nullable final String lastModified) {
+        if (!enabled || (etag == null && lastModified == null) || downloadedFile.size() > maxSize) {
+            return;
+        }
+
+        // content addressed, so concurrent downloads of the same URL can not overwrite each other's file
+        final Path cachedFile = cacheDir.resolve(downloadedFile.sha256() + '-' + Integer.toHexString(url.hashCode()));
+        try {
+            if (Files.notExists(cachedFile)) {
+                linkOrCopy(downloadedFile.path(), cachedFile);
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to cache download of: {}", url, e);
+            return;
+        }
+
+        final Entry entry = new Entry(url, cachedFile, downloadedFile.size(), downloadedFile.sha256(), downloadedFile.lines(), downloadedFile.utf8Errors(), etag, lastModified);
+        final List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            final Entry previous = entries.put(url, entry);
+            if (previous != null) {
+                totalSize -= previous.size();
+                if (!previous.file().equals(cachedFile)) {
+                    evicted.add(previous);
+                }
+            }
+            totalSize += entry.size();
+
+            final Iterator<Entry> it = entries.values().iterator();
+            while ((entries.size() > maxEntries || totalSize > maxSize) && it.hasNext()) {
+                final Entry eldest = it.next();
+                it.remove();
+                totalSize -= eldest.size();
+                evicted.add(eldest);
+            }
+        }
+
+        for (final Entry eldest : evicted) {
+            delete(eldest);
+        }
+        LOG.trace("Cached download of {} as {}", url, cachedFile);
+    }
+
+    /**
+     * Removes the cached download of a URL.
+     *
+     * @param url the URL
+     */
+    public void remove(final String url) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.remove(url);
+            if (entry != null) {
+                totalSize -= entry.size();
+            }
+        }
+        if (entry != null) {
+            delete(entry);
+        }
+    }
+
+    /**
+     * Makes a cached file available at a path owned by the caller, without copying
+     * it where the file system supports hard links.
+     *
+     * The caller's copy is given the current time as its modification time, as a hard link shares
+     * that of the cached file, so that it is not taken to be as old as the cached file.
+     *
+     * @param entry the cached download
+     * @param target the path for the caller's copy
+     * @return the caller's copy
+     * @throws IOException if the cached file no longer exists, or could not be linked or copied
+     */
+    public SpooledFile materialize(final Entry entry, final Path target) throws IOException {
+        linkOrCopy(entry.file(), target);
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return new SpooledFile(target, entry.size(), entry.sha256(), entry.lines(), entry.utf8Errors());
+    }
+
+    private static void linkOrCopy(final Path source, final Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            if (Files.notExists(source)) {
+                throw e;
+            }
+            Files.copy(source, target);
+        }
+    }
+
+    private void delete(final Entry entry) {
+        try {
+            Files.deleteIfExists(entry.file());
+        } catch (final IOException e) {
+            LOG.warn("Unable to delete cached download: {}", entry.file(), e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void clear() {
+        for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+            delete(entry.getValue());
+        }
+        entries.clear();
+        totalSize = 0;
+        instanceDirectory.close();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Creates the single, long-lived, HTTP Client which is used for downloading
+ * CSV files, so that its pool of connections (and their TLS sessions) are
+ * reused across requests.
+ */
+@Factory
+public class DownloadHttpClientFactory {
+
+    public static final String DOWNLOAD = "download";
+
+    @Named(DOWNLOAD)
+    @Singleton
+    public PoolingHttpClientConnectionManager downloadConnectionManager(
+            @Value("${download.http.max-total:20}") final int maxTotal,
+            @Value("${download.http.max-per-route:15}") final int maxPerRoute,
+            @Value("${download.http.connect-timeout:10000}") final long connectTimeout,
+            @Value("${download.http.validate-after-inactivity:15000}") final long validateAfterInactivity) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity))
+                .build());
+        return connectionManager;
+    }
+
+    /**
+     * The HTTP Client owns the connection manager, so closing the client
+     * when the application context is closed also closes the pool.
+     */
+    @Named(DOWNLOAD)
+    @Singleton
+    @Bean(preDestroy = "close")
+    public CloseableHttpClient downloadHttpClient(
+            @Named(DOWNLOAD) final PoolingHttpClientConnectionManager connectionManager,
+            @Value("${download.http.response-timeout:10000}") final long responseTimeout,
+            @Value("${download.http.connection-request-timeout:3000}") final long connectionRequestTimeout,
+            @Value("${download.http.evict-idle-after:30000}") final long evictIdleAfter) {
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                .build();
+
+        return HttpClients
+                .custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(evictIdleAfter))
+                .evictExpiredConnections()
+                .build();
+    }
+}
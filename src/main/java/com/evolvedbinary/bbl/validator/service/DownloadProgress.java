@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * The progress of a download, which may be read by other threads whilst the download is in progress.
+ */
+@ThreadSafe
+public final class DownloadProgress {
+
+    // only written by the thread performing the download
+    private volatile long contentLength = -1;
+    private volatile long bytesReceived;
+
+    void start(final long contentLength) {
+        this.contentLength = contentLength;
+        this.bytesReceived = 0;
+    }
+
+    void received(final long bytes) {
+        this.bytesReceived = bytesReceived + bytes;
+    }
+
+    /**
+     * @return the number of bytes received so far
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return the size of the download, as declared by the server, or -1 if it is not known
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+}
@@ -15,128 +15,407 @@
  */
 package com.evolvedbinary.bbl.validator.service;
 
-import com.fasterxml.uuid.Generators;
-import com.fasterxml.uuid.impl.RandomBasedGenerator;
+import com.evolvedbinary.bbl.validator.io.Compression;
+import com.evolvedbinary.bbl.validator.io.Utf8Validator;
+import com.evolvedbinary.bbl.validator.metrics.ValidationMetrics;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpStatus;
-import org.apache.hc.core5.util.TimeValue;
-import org.apache.hc.core5.util.Timeout;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Singleton
 public class FileDownloadService {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileDownloadService.class);
-    private static final String TEMP_DIR_NAME = "bbl-validator";
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+    private static final String SPOOL_SOURCE_BODY = "body";
+    private static final String SPOOL_SOURCE_CONTENT = "content";
+    private static final String SPOOL_SOURCE_DOWNLOAD = "download";
 
-    private final PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
-    private final RequestConfig httpRequestConfig;
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final DownloadCache downloadCache;
+    private final SpoolDirectory spoolDirectory;
+    private final ValidationMetrics validationMetrics;
+    private final int maxEncodingErrors;
+    private final long maxDownloadSize;
+    private final long maxDecompressedSize;
 
-    private final Path sharedTempDir;
-    private final RandomBasedGenerator generator = Generators.randomBasedGenerator();
-
-    public FileDownloadService() {
-        this.poolingHttpClientConnectionManager = new PoolingHttpClientConnectionManager();
-        this.poolingHttpClientConnectionManager.setMaxTotal(20);
-        this.poolingHttpClientConnectionManager.setDefaultMaxPerRoute(15);
-        this.poolingHttpClientConnectionManager.setValidateAfterInactivity(TimeValue.ofMilliseconds(15_000));
-
-        this.httpRequestConfig = RequestConfig.custom()
-                .setConnectTimeout(Timeout.ofMilliseconds(10_000))
-                .setResponseTimeout(Timeout.ofMilliseconds(10_000))
-                .setConnectionRequestTimeout(Timeout.ofMilliseconds(3_000))
-                .build();
-
-        try {
-            this.sharedTempDir = Files.createTempDirectory(TEMP_DIR_NAME);
-        } catch (final IOException e) {
-            throw new IllegalStateException("Failed to create or access persistent temp directory", e);
-        }
+    @Inject
+    public FileDownloadService(@Named(DownloadHttpClientFactory.DOWNLOAD) final CloseableHttpClient httpClient,
+                               @Named(DownloadHttpClientFactory.DOWNLOAD) final PoolingHttpClientConnectionManager connectionManager,
+                               final DownloadCache downloadCache,
+                               final SpoolDirectory spoolDirectory,
+                               final ValidationMetrics validationMetrics,
+                               @Value("${validation.encoding.max-errors:100}") final int maxEncodingErrors,
+                               @Value("${download.max-size:1GB}") @ReadableBytes final long maxDownloadSize,
+                               @Value("${decompression.max-size:1GB}") @ReadableBytes final long maxDecompressedSize) {
+        this.httpClient = httpClient;
+        this.connectionManager = connectionManager;
+        this.downloadCache = downloadCache;
+        this.spoolDirectory = spoolDirectory;
+        this.validationMetrics = validationMetrics;
+        this.maxEncodingErrors = Math.max(1, maxEncodingErrors);
+        this.maxDownloadSize = maxDownloadSize;
+        this.maxDecompressedSize = maxDecompressedSize;
     }
 
-    private CloseableHttpClient buildHttpClient() {
-        return HttpClients
-                .custom()
-                .setConnectionManager(poolingHttpClientConnectionManager)
-                .setDefaultRequestConfig(httpRequestConfig)
-                .evictIdleConnections(TimeValue.ofSeconds(30))
-                .evictExpiredConnections()
-                .build();
+    /**
+     * Returns statistics about the pool of HTTP connections used for downloads.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStats getConnectionPoolStats() {
+        return connectionManager.getTotalStats();
     }
 
     /**
      * Downloads a file from the given URL and stores it with a UUID v4 filename.
      *
+     * A file which is gzip, zstd or zip compressed is detected from its magic bytes,
+     * and decompressed as it is downloaded.
+     *
+     * If the file was downloaded before, it is fetched conditionally, and if it has not
+     * changed the previously downloaded copy is reused rather than downloaded again.
+     *
      * @param url The URL to download from
-     * @return Path to the downloaded file in the shared temp directory
+     * @return the downloaded file in the spool directory
      * @throws IOException if download or file operations fail
      */
-    public Path downloadToTemp(final String url) throws IOException {
-        try {
-            final String filename = generateUuidFilename();
-            final Path tempFile = sharedTempDir.resolve(filename);
+    public SpooledFile downloadToTemp(final String url) throws IOException {
+        return downloadToTemp(url, null);
+    }
 
+    /**
+     * Downloads a file from the given URL and stores it with a UUID v4 filename, reporting its progress.
+     *
+     * A file larger than {@code download.max-size}, once decompressed, is rejected as soon as
+     * that is known, from its Content-Length, or else once more than the maximum size has been received.
+     *
+     * @param url The URL to download from
+     * @param progress where to report the progress of the download, or null
+     * @return the downloaded file in the spool directory
+     * @throws FileTooLargeException if the file is larger than the maximum size
+     * @throws SpoolFullException if the spool directory remained full for too long
+     * @throws IOException if download or file operations fail
+     */
+    public SpooledFile downloadToTemp(final String url, @Nullable final DownloadProgress progress) throws IOException {
+        try {
             final HttpGet httpGet = new HttpGet(url);
 
-            try (final CloseableHttpResponse response = buildHttpClient().execute(httpGet)) {
+            final long startTime = System.nanoTime();
+            final DownloadCache.Entry cached = downloadCache.get(url);
+            if (cached != null) {
+                if (cached.etag() != null) {
+                    httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag());
+                }
+                if (cached.lastModified() != null) {
+                    httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                }
+            }
+
+            try (final CloseableHttpResponse response = httpClient.execute(httpGet)) {
 
                 final int statusCode = response.getCode();
 
-                if (statusCode != HttpStatus.SC_OK) {
-                    throw new IOException("Non Resolvable url: " + url);
-                }
+                if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                    EntityUtils.consume(response.getEntity());
+                    final Path tempFile = spoolDirectory.newFile();
+                    try {
+                        spoolDirectory.reserve(tempFile, cached.size());
+                        final SpooledFile spooledFile = downloadCache.materialize(cached, tempFile);
+                        validationMetrics.recordDownload(ValidationMetrics.DownloadOutcome.NOT_MODIFIED, System.nanoTime() - startTime, spooledFile.size());
+                        if (progress != null) {
+                            progress.start(spooledFile.size());
+                            progress.received(spooledFile.size());
+                        }
+                        LOG.trace("Reused cached download of {} as {}", url, tempFile);
+                        return spooledFile;
+                    } catch (final SpoolFullException | InterruptedIOException e) {
+                        throw e;
+                    } catch (final IOException e) {
+                        spoolDirectory.delete(tempFile);
+                        // the cached copy was evicted in the meantime, so fetch it again in full below
+                        LOG.trace("Cached download of {} is no longer available", url, e);
+                        downloadCache.remove(url);
+                    }
+                } else {
+                    if (statusCode != HttpStatus.SC_OK) {
+                        validationMetrics.recordDownload(ValidationMetrics.DownloadOutcome.FAILED, System.nanoTime() - startTime, 0);
+                        throw new IOException("Non Resolvable url: " + url);
+                    }
+
+                    final long contentLength = response.getEntity().getContentLength();
+                    if (maxDownloadSize > 0 && contentLength > maxDownloadSize) {
+                        // abandon the connection, rather than reading the rest of the content when the response is closed
+                        httpGet.cancel();
+                        validationMetrics.recordDownload(ValidationMetrics.DownloadOutcome.FAILED, System.nanoTime() - startTime, 0);
+                        throw new FileTooLargeException(url, maxDownloadSize);
+                    }
+                    if (progress != null) {
+                        progress.start(contentLength);
+                    }
+
+                    final SpooledFile spooledFile;
+                    // progress is measured in the bytes received, before they are decompressed
+                    final InputStream received = new BufferedInputStream(new ProgressInputStream(response.getEntity().getContent(), progress), SPOOL_BUFFER_SIZE);
+                    final Compression compression = Compression.detect(received);
+                    try (final InputStream inputStream = compression.decompress(received)) {
+                        try {
+                            spooledFile = spool(inputStream, SPOOL_SOURCE_DOWNLOAD, url, maxDownloadSize,
+                                    compression == Compression.NONE ? contentLength : -1);
+                        } catch (final FileTooLargeException e) {
+                            httpGet.cancel();
+                            throw e;
+                        }
+                    } catch (final IOException e) {
+                        validationMetrics.recordDownload(ValidationMetrics.DownloadOutcome.FAILED, System.nanoTime() - startTime, 0);
+                        throw e;
+                    }
 
-                try (final InputStream inputStream = response.getEntity().getContent()) {
-                    Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                    downloadCache.put(url, spooledFile, headerValue(response, HttpHeaders.ETAG), headerValue(response, HttpHeaders.LAST_MODIFIED));
+                    validationMetrics.recordDownload(ValidationMetrics.DownloadOutcome.DOWNLOADED, System.nanoTime() - startTime, spooledFile.size());
+
+                    LOG.trace("Downloaded file from {} to {}", url, spooledFile.path());
+                    return spooledFile;
                 }
             }
 
-            LOG.trace("Downloaded file from {} to {}", url, tempFile);
-            return tempFile;
+            return downloadToTemp(url, progress);
 
         } catch (final IllegalArgumentException e) {
             throw new IOException("Invalid URL format: " + url, e);
         }
     }
 
+    private static @Nullable String headerValue(final CloseableHttpResponse response, final String name) {
+        final Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
     /**
      * Saves content to a temporary file with a UUID v4 filename.
      *
      * @param content The content to save
-     * @return Path to the created temp file
+     * @return the created temp file
      * @throws IOException if file operations fail
      */
-    public Path saveContentToTemp(final String content) throws IOException {
-        final String uuidFilename = generateUuidFilename();
-        final Path tempFile = sharedTempDir.resolve(uuidFilename);
+    public SpooledFile saveContentToTemp(final String content) throws IOException {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        final SpooledFile spooledFile = saveStreamToTemp(new ByteArrayInputStream(bytes), SPOOL_SOURCE_CONTENT, 0, bytes.length);
 
-        Files.writeString(tempFile, content);
+        LOG.trace("Saved content to temp file: {}", spooledFile.path());
+        return spooledFile;
+    }
 
-        LOG.trace("Saved content to temp file: {}", tempFile);
-        return tempFile;
+    /**
+     * Streams content to a temporary file with a UUID v4 filename.
+     *
+     * The content is copied in fixed size chunks, so it is never held in memory
+     * in its entirety.
+     *
+     * @param inputStream The content to save, the caller is responsible for closing it
+     * @return the created temp file
+     * @throws IOException if reading the content or file operations fail
+     */
+    public SpooledFile saveStreamToTemp(final InputStream inputStream) throws IOException {
+        return saveStreamToTemp(inputStream, Compression.NONE, -1);
     }
 
     /**
-     * Generates a UUID v4 filename.
+     * Streams content, which may be compressed, to a temporary file with a UUID v4 filename.
+     *
+     * Compressed content is decompressed as it is copied. Content is rejected if it is, or
+     * decompresses to, more than {@code decompression.max-size}, which applies whether or not
+     * the content is compressed, so that the limit still holds for content which was already
+     * decompressed before it reached this service. If the compression is not known, for example
+     * from the Content-Encoding of a request, content which is gzip, zstd or zip compressed is
+     * detected from its magic bytes.
      *
-     * @return A UUID v4 string to be used as filename
+     * @param inputStream The content to save, the caller is responsible for closing it
+     * @param compression the compression of the content, or {@link Compression#NONE} to detect it
+     * @param expectedSize the size of the content as received, e.g. its Content-Length, or -1 if not known;
+     *     the space reserved for it in the spool directory before it is copied
+     * @return the created temp file
+     * @throws FileTooLargeException if the content is, or decompresses to, more than the maximum size
+     * @throws SpoolFullException if the spool directory remained full for too long
+     * @throws IOException if reading the content or file operations fail
      */
-    private String generateUuidFilename() {
-        final UUID uuid = generator.generate();
-        return uuid.toString() + ".csv";
+    public SpooledFile saveStreamToTemp(final InputStream inputStream, final Compression compression, final long expectedSize) throws IOException {
+        final InputStream buffered = new BufferedInputStream(inputStream, SPOOL_BUFFER_SIZE);
+        final Compression actual = compression != Compression.NONE ? compression : Compression.detect(buffered);
+        if (actual == Compression.NONE) {
+            return saveStreamToTemp(buffered, SPOOL_SOURCE_BODY, maxDecompressedSize, expectedSize);
+        }
+        try (final InputStream decompressed = actual.decompress(buffered)) {
+            // the size once decompressed is not known
+            return saveStreamToTemp(decompressed, SPOOL_SOURCE_BODY, maxDecompressedSize, -1);
+        }
+    }
+
+    private SpooledFile saveStreamToTemp(final InputStream inputStream, final String source, final long maxSize,
+            final long expectedSize) throws IOException {
+        final SpooledFile spooledFile = spool(inputStream, source, null, maxSize, expectedSize);
+        LOG.trace("Streamed content to temp file: {}", spooledFile.path());
+        return spooledFile;
+    }
+
+    /**
+     * Copies content to a spooled file, hashing it, checking its encoding and counting its lines on the way through,
+     * so that the content never has to be read a second time to identify or measure it.
+     *
+     * Small content is read whole, and written in a single write, to a memory-backed file if the spool
+     * directory has room for it, as for small files the cost of the file system dominates.
+     * Larger content is copied to disk in fixed size chunks. The spooled file is deleted if the copy fails.
+     *
+     * Space for the whole of the content is reserved in the spool directory before it is copied, as far
+     * as its size is known, so that a copy does not wait for space whilst already holding some.
+     *
+     * @param url the URL the content is downloaded from, or null
+     * @param maxSize the maximum size of the content, or 0 for no maximum
+     * @param expectedSize the expected size of the content, or -1 if not known
+     */
+    private SpooledFile spool(final InputStream inputStream, final String source, @Nullable final String url,
+            final long maxSize, final long expectedSize) throws IOException {
+        final long startTime = System.nanoTime();
+        final MessageDigest digest = newSha256Digest();
+        // the encoding is checked, and lines counted, as the content is written
+        final Utf8Validator utf8Validator = new Utf8Validator(maxEncodingErrors);
+
+        final int smallFileMaxSize = spoolDirectory.getSmallFileMaxSize();
+        // time spent waiting for the content to arrive, which for a download is already timed by bbl.download.duration
+        long readNanos = System.nanoTime();
+        final byte[] head = inputStream.readNBytes(smallFileMaxSize + 1);
+        readNanos = System.nanoTime() - readNanos;
+        if (maxSize > 0 && head.length > maxSize) {
+            throw new FileTooLargeException(url, maxSize);
+        }
+        final boolean small = smallFileMaxSize > 0 && head.length <= smallFileMaxSize;
+        final Path memoryFile = small ? spoolDirectory.newMemoryFile(head.length) : null;
+        final Path tempFile = memoryFile != null ? memoryFile : spoolDirectory.newFile();
+
+        long size = head.length;
+        long reservedSize = 0;
+        byte last = head.length > 0 ? head[head.length - 1] : (byte) '\n';
+        try {
+            digest.update(head);
+            utf8Validator.update(ByteBuffer.wrap(head));
+            if (memoryFile == null) {
+                reservedSize = small ? head.length : Math.max(head.length, maxSize > 0 ? Math.min(expectedSize, maxSize) : expectedSize);
+                spoolDirectory.reserve(tempFile, reservedSize);
+            }
+            if (small) {
+                Files.write(tempFile, head);
+            } else {
+                final byte[] buffer = new byte[SPOOL_BUFFER_SIZE];
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+                try (final OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    outputStream.write(head);
+                    int read;
+                    long readStart = System.nanoTime();
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        readNanos += System.nanoTime() - readStart;
+                        if (maxSize > 0 && size + read > maxSize) {
+                            throw new FileTooLargeException(url, maxSize);
+                        }
+                        if (size + read > reservedSize) {
+                            // larger than expected, so the space is reserved as it is written
+                            spoolDirectory.reserve(tempFile, size + read - reservedSize);
+                            reservedSize = size + read;
+                        }
+                        outputStream.write(buffer, 0, read);
+                        digest.update(buffer, 0, read);
+                        utf8Validator.update(byteBuffer.limit(read));
+                        if (read > 0) {
+                            last = buffer[read - 1];
+                        }
+                        size += read;
+                        readStart = System.nanoTime();
+                    }
+                    readNanos += System.nanoTime() - readStart;
+                }
+                spoolDirectory.settle(tempFile, size);
+            }
+        } catch (final IOException e) {
+            spoolDirectory.delete(tempFile);
+            throw e;
+        }
+
+        long lines = utf8Validator.getLineFeeds();
+        if (last != '\n') {
+            // the last line has no line terminator
+            lines++;
+        }
+        final long spoolNanos = System.nanoTime() - startTime;
+        validationMetrics.recordSpool(source, SPOOL_SOURCE_DOWNLOAD.equals(source) ? spoolNanos - readNanos : spoolNanos, size);
+        return new SpooledFile(tempFile, size, HexFormat.of().formatHex(digest.digest()), lines, utf8Validator.getErrors());
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reports the bytes read from a download to its progress.
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        @Nullable
+        private final DownloadProgress progress;
+
+        ProgressInputStream(final InputStream in, @Nullable final DownloadProgress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1 && progress != null) {
+                progress.received(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0 && progress != null) {
+                progress.received(read);
+            }
+            return read;
+        }
     }
 }
\ No newline at end of file
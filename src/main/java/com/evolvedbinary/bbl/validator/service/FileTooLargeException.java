@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file being downloaded, or decompressed, is larger than the maximum size allowed.
+ *
+ * The file is abandoned as soon as this is known, either from the Content-Length
+ * of the response or once more than the maximum size has been received.
+ */
+public class FileTooLargeException extends IOException {
+
+    private final long maxSize;
+
+    public FileTooLargeException(@Nullable final String url, final long maxSize) {
+        super((url != null ? "Download of " + url : "Content") + " exceeds the maximum size of " + maxSize + " bytes");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the maximum size of the file, in bytes
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A directory beneath a root, owned by this instance of the application, which holds a lock on
+ * it for as long as it runs.
+ *
+ * Several instances may share the same root, each in its own directory. The directories of
+ * instances which are no longer running, e.g. after a crash or a kill -9, no longer hold their
+ * lock, and are removed when another instance starts or calls {@link #removeAbandonedDirectories()}.
+ */
+final class InstanceDirectory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstanceDirectory.class);
+    private static final String INSTANCE_DIR_PREFIX = "instance-";
+    static final String LOCK_FILE_NAME = ".lock";
+
+    private final Path root;
+    private final Path directory;
+    private final FileChannel lockChannel;
+
+    /**
+     * Creates and locks a new directory for this instance, and removes any abandoned directories.
+     *
+     * @param root the root beneath which to create the directory
+     * @throws IllegalStateException if the directory could not be created or locked
+     */
+    InstanceDirectory(final Path root) {
+        try {
+            this.root = Files.createDirectories(root);
+            this.directory = Files.createTempDirectory(this.root, INSTANCE_DIR_PREFIX);
+            this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lockChannel.tryLock() == null) {
+                throw new IOException("Unable to lock " + directory);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("Failed to create instance directory in: " + root, e);
+        }
+        removeAbandonedDirectories();
+    }
+
+    /**
+     * @return the directory of this instance
+     */
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Removes the directories of other instances which no longer hold their lock.
+     */
+    void removeAbandonedDirectories() {
+        try (final DirectoryStream<Path> instances = Files.newDirectoryStream(root, INSTANCE_DIR_PREFIX + "*")) {
+            for (final Path instance : instances) {
+                if (!instance.equals(directory) && Files.isDirectory(instance) && isAbandoned(instance)) {
+                    LOG.info("Removing directory of an instance which is no longer running: {}", instance);
+                    deleteRecursively(instance);
+                }
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to remove abandoned instance directories from: {}", root, e);
+        }
+    }
+
+    private static boolean isAbandoned(final Path instance) throws IOException {
+        final Path lockFile = instance.resolve(LOCK_FILE_NAME);
+        if (!Files.exists(lockFile)) {
+            // either abandoned, or still being created, so only once it is old enough
+            return Files.getLastModifiedTime(instance).toInstant().isBefore(Instant.now().minus(Duration.ofMinutes(1)));
+        }
+        try (final FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            final FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return false;
+            }
+            lock.release();
+            return true;
+        } catch (final OverlappingFileLockException e) {
+            // locked by another instance within this JVM
+            return false;
+        } catch (final NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Releases the lock, and removes the directory of this instance.
+     */
+    void close() {
+        try {
+            lockChannel.close();
+            deleteRecursively(directory);
+        } catch (final IOException e) {
+            LOG.warn("Unable to remove instance directory: {}", directory, e);
+        }
+    }
+
+    private static void deleteRecursively(final Path path) throws IOException {
+        try (final Stream<Path> paths = Files.walk(path)) {
+            for (final Path each : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(each);
+            }
+        } catch (final NoSuchFileException e) {
+            // already removed
+        }
+    }
+}
@@ -18,7 +18,9 @@ package com.evolvedbinary.bbl.validator.service;
 import com.evolvedbinary.bbl.validator.dto.SchemaInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import net.jcip.annotations.GuardedBy;
 import org.slf4j.Logger;
@@ -26,33 +28,115 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+/**
+ * Loads the schemas from the schema directory, and reloads them whenever the directory changes.
+ *
+ * All of the loaded schemas are published together as an immutable snapshot through a single
+ * volatile reference, so that looking up a schema never takes a lock, and a request always
+ * sees a consistent set of schemas even whilst they are being reloaded.
+ *
+ * The content of each compiled schema is also written to a file named by its content hash,
+ * which is never changed once written, and it is that file which the CSV Validator engine
+ * reads, so that a validation always uses exactly the content its result is cached against.
+ */
 @Singleton
 public class SchemaService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SchemaService.class);
+    private static final String COMPILED_DIR_NAME = "bbl-validator-schemas";
 
     @Value("${schema.directory}")
     private String schemaDirectory;
 
-    private final List<SchemaInfo> schemas = new ArrayList<>();
-    private final ReadWriteLock schemaLock = new ReentrantReadWriteLock();
-    @GuardedBy("schemaLock")
-    private final Map<String, String> schemaContents = new HashMap<>();
-    @GuardedBy("schemaLock")
-    private final Map<String, Path> schemaFilePaths = new HashMap<>();
+    @Value("${schema.watch.enabled:true}")
+    private boolean watchEnabled;
+
+    @Value("${schema.watch.debounce:500ms}")
+    private Duration watchDebounce;
+
+    /**
+     * A schema loaded from its metadata file and its schema file.
+     */
+    private record LoadedSchema(SchemaInfo schemaInfo, CompiledSchema compiledSchema) {
+    }
+
+    /**
+     * The schemas loaded from the schema directory at one point in time.
+     *
+     * @param byMetadataPath the schemas keyed by the path of their metadata file
+     * @param schemas the metadata of the schemas, in the order they were loaded
+     * @param byId the schemas keyed by their id
+     * @param schemasHash a hash of the metadata and content of all of the schemas
+     */
+    private record Snapshot(Map<Path, LoadedSchema> byMetadataPath, List<SchemaInfo> schemas, Map<String, LoadedSchema> byId, String schemasHash) {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap(), CompiledSchema.sha256Hex(""));
+
+        static Snapshot of(final Map<Path, LoadedSchema> byMetadataPath) {
+            final Map<String, LoadedSchema> byId = new LinkedHashMap<>();
+            for (final LoadedSchema loadedSchema : byMetadataPath.values()) {
+                byId.put(loadedSchema.schemaInfo().getId(), loadedSchema);
+            }
+            final List<SchemaInfo> schemas = new ArrayList<>(byId.size());
+            final StringBuilder hashed = new StringBuilder();
+            for (final LoadedSchema loadedSchema : byId.values()) {
+                final SchemaInfo schemaInfo = loadedSchema.schemaInfo();
+                schemas.add(schemaInfo);
+                hashed.append(schemaInfo.getId()).append('\0')
+                        .append(schemaInfo.getName()).append('\0')
+                        .append(schemaInfo.getVersion()).append('\0')
+                        .append(schemaInfo.getDate()).append('\0')
+                        .append(schemaInfo.getUrl()).append('\0')
+                        .append(schemaInfo.getDescription()).append('\0')
+                        .append(loadedSchema.compiledSchema().getContentHash()).append('\n');
+            }
+            return new Snapshot(Collections.unmodifiableMap(byMetadataPath), Collections.unmodifiableList(schemas),
+                    Collections.unmodifiableMap(byId), CompiledSchema.sha256Hex(hashed.toString()));
+        }
+    }
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Compiled schemas keyed by {@link CompiledSchema#getCacheKey()}, so that a schema
+     * is only ever compiled once for any given content.
+     */
+    private final Map<String, CompiledSchema> compiledSchemaCache = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * The directory of the files the CSV Validator engine reads, one for each compiled content.
+     * They are small, and are kept until shutdown, as a validation may still be reading one
+     * after its schema has changed. The directory of an instance which did not shut down
+     * cleanly is removed by the next instance to start.
+     */
+    private @Nullable InstanceDirectory compiledSchemaInstanceDirectory;
+    private Path compiledSchemaDirectory;
+
+    @GuardedBy("this")
+    private @Nullable WatchService watchService;
+
     @PostConstruct
     public void loadSchemas() {
         try {
@@ -69,14 +153,21 @@ public class SchemaService {
                 throw new IllegalStateException("Schema path is not a directory: " + schemaPath);
             }
 
+            compiledSchemaInstanceDirectory = new InstanceDirectory(Paths.get(System.getProperty("java.io.tmpdir"), COMPILED_DIR_NAME));
+            compiledSchemaDirectory = compiledSchemaInstanceDirectory.getDirectory();
+
             // Scan for schema metadata files
-            loadSchemasFromFileSystem(schemaPath);
+            reload();
 
-            LOG.trace("Loaded {} schemas from: {}", schemas.size(), schemaPath);
+            if (watchEnabled) {
+                startWatching(schemaPath);
+            }
         } catch (final SecurityException e) {
             LOG.error("You don't have enough permissions to open this file: ", e);
             throw new IllegalStateException("You don't have permission to open Schema directory ");
 
+        } catch (final IOException e) {
+            throw new IllegalStateException("Failed to create compiled schema directory", e);
         }
     }
 
@@ -97,22 +188,55 @@ public class SchemaService {
         }
     }
 
-    private void loadSchemasFromFileSystem(final Path schemaPath) {
+    /**
+     * Reloads the schemas from the schema directory, and publishes them as a new snapshot.
+     *
+     * Only schemas whose content has changed are compiled again. A schema which can no longer
+     * be read, for example because it is part way through being written, keeps its previously
+     * loaded version until it can be read again.
+     */
+    synchronized void reload() {
+        final Path schemaPath = resolveSchemaPath();
+        final Snapshot next = scan(schemaPath, snapshot);
+        snapshot = next;
+
+        // forget the compiled schemas which are no longer in use
+        final Set<String> cacheKeys = new HashSet<>();
+        for (final LoadedSchema loadedSchema : next.byId().values()) {
+            cacheKeys.add(loadedSchema.compiledSchema().getCacheKey());
+        }
+        compiledSchemaCache.keySet().retainAll(cacheKeys);
+
+        LOG.trace("Loaded {} schemas from: {}", next.schemas().size(), schemaPath);
+    }
+
+    private Snapshot scan(final Path schemaPath, final Snapshot previous) {
+        final Map<Path, LoadedSchema> loaded = new LinkedHashMap<>();
         try (final Stream<Path> paths = Files.walk(schemaPath, 1)) {
-            paths.filter(path -> path.toString().endsWith(".json"))
-                    .forEach(path -> {
-                        try {
-                            loadSchemaMetadata(path);
-                        } catch (final IOException e) {
-                            LOG.warn("Error loading schema metadata from: {}", path, e);
-                        }
-                    });
+            final Iterator<Path> metadataPaths = paths.filter(path -> path.toString().endsWith(".json")).sorted().iterator();
+            while (metadataPaths.hasNext()) {
+                final Path metadataPath = metadataPaths.next();
+                try {
+                    final LoadedSchema loadedSchema = loadSchema(metadataPath);
+                    if (loadedSchema != null) {
+                        loaded.put(metadataPath, loadedSchema);
+                    }
+                } catch (final IOException e) {
+                    LOG.warn("Error loading schema metadata from: {}", metadataPath, e);
+                    final LoadedSchema previouslyLoaded = previous.byMetadataPath().get(metadataPath);
+                    if (previouslyLoaded != null) {
+                        loaded.put(metadataPath, previouslyLoaded);
+                    }
+                }
+            }
         } catch (final IOException e) {
             LOG.warn("Error scanning schema directory: {}", schemaPath, e);
+            return previous;
         }
+        return Snapshot.of(loaded);
     }
 
-    private void loadSchemaMetadata(final Path metadataPath) throws IOException {
+    private @Nullable LoadedSchema loadSchema(final Path metadataPath) throws IOException {
         final String content = Files.readString(metadataPath, StandardCharsets.UTF_8);
         final SchemaInfo schemaInfo = objectMapper.readValue(content, SchemaInfo.class);
 
@@ -122,40 +246,138 @@ public class SchemaService {
 
         if (Files.exists(schemaFilePath)) {
             final String schemaContent = Files.readString(schemaFilePath, StandardCharsets.UTF_8);
-            schemaLock.writeLock().lock();
-            try {
-                schemaContents.put(schemaInfo.getId(), schemaContent);
-                schemaFilePaths.put(schemaInfo.getId(), schemaFilePath);
-            } finally {
-                schemaLock.writeLock().unlock();
-            }
-            schemas.add(schemaInfo);
+            final CompiledSchema compiledSchema = compileSchema(schemaInfo.getId(), schemaFilePath, schemaContent);
             LOG.trace("Loaded schema: {}", schemaInfo.getId());
+            return new LoadedSchema(schemaInfo, compiledSchema);
         } else {
             LOG.warn("Schema file not found for metadata: {}", schemaFileName);
+            return null;
         }
     }
 
-    public List<SchemaInfo> listSchemas() {
-        return schemas;
+    private CompiledSchema compileSchema(final String schemaId, final Path schemaFilePath, final String schemaContent) throws IOException {
+        final String contentHash = CompiledSchema.sha256Hex(schemaContent);
+        final CompiledSchema compiledSchema = compiledSchemaCache.get(schemaId + '@' + contentHash);
+        if (compiledSchema != null) {
+            return compiledSchema;
+        }
+        final Path engineSchemaFilePath = writeCompiledSchemaFile(schemaContent, contentHash);
+        return compiledSchemaCache.computeIfAbsent(schemaId + '@' + contentHash, key -> {
+            LOG.trace("Compiling schema: {}", key);
+            return CompiledSchema.compile(schemaId, schemaFilePath, engineSchemaFilePath, schemaContent, contentHash);
+        });
     }
 
-    public String getSchema(final String schemaId) {
-        schemaLock.readLock().lock();
+    /**
+     * Writes the content of a schema to a file named by its content hash, unless it already
+     * exists. The file is written under a temporary name and then moved into place, so that it
+     * is never seen part way through being written.
+     */
+    private Path writeCompiledSchemaFile(final String schemaContent, final String contentHash) throws IOException {
+        final Path engineSchemaFilePath = compiledSchemaDirectory.resolve(contentHash + ".csvs");
+        if (Files.notExists(engineSchemaFilePath)) {
+            final Path partial = Files.createTempFile(compiledSchemaDirectory, contentHash, ".partial");
+            try {
+                Files.writeString(partial, schemaContent, StandardCharsets.UTF_8);
+                Files.move(partial, engineSchemaFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return engineSchemaFilePath;
+    }
+
+    private synchronized void startWatching(final Path schemaPath) {
         try {
-            return schemaContents.get(schemaId);
-        } finally {
-            schemaLock.readLock().unlock();
+            watchService = schemaPath.getFileSystem().newWatchService();
+            schemaPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (final IOException e) {
+            LOG.warn("Unable to watch schema directory, schemas will not be reloaded: {}", schemaPath, e);
+            return;
         }
+        final WatchService schemaWatchService = watchService;
+        Thread.ofPlatform().name("schema-watcher").daemon(true).start(() -> watch(schemaWatchService, schemaPath));
     }
 
-    public Path getSchemaFilePath(final String schemaId) {
-        schemaLock.readLock().lock();
+    private void watch(final WatchService schemaWatchService, final Path schemaPath) {
         try {
-            return schemaFilePaths.get(schemaId);
-        } finally {
-            schemaLock.readLock().unlock();
+            while (true) {
+                WatchKey key = schemaWatchService.take();
+                // wait for a burst of changes to settle, e.g. a metadata file and its schema file being copied in
+                do {
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        LOG.warn("Schema directory can no longer be watched, schemas will not be reloaded: {}", schemaPath);
+                        return;
+                    }
+                } while ((key = schemaWatchService.poll(watchDebounce.toMillis(), TimeUnit.MILLISECONDS)) != null);
+
+                try {
+                    reload();
+                } catch (final RuntimeException e) {
+                    LOG.error("Error reloading schemas from: {}", schemaPath, e);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException e) {
+            // the service is shutting down
         }
     }
-}
 
+    @PreDestroy
+    synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException e) {
+                LOG.warn("Unable to stop watching schema directory", e);
+            }
+            watchService = null;
+        }
+        if (compiledSchemaInstanceDirectory != null) {
+            compiledSchemaInstanceDirectory.close();
+            compiledSchemaInstanceDirectory = null;
+        }
+    }
+
+    public List<SchemaInfo> listSchemas() {
+        return snapshot.schemas();
+    }
+
+    /**
+     * Returns a hash of the metadata and content of all of the schemas, which changes
+     * whenever any schema is added, changed or removed.
+     *
+     * @return the hash of the schemas
+     */
+    public String getSchemasHash() {
+        return snapshot.schemasHash();
+    }
+
+    public SchemaInfo getSchemaInfo(final String schemaId) {
+        final LoadedSchema loadedSchema = snapshot.byId().get(schemaId);
+        return loadedSchema != null ? loadedSchema.schemaInfo() : null;
+    }
+
+    public String getSchema(final String schemaId) {
+        final CompiledSchema compiledSchema = getCompiledSchema(schemaId);
+        return compiledSchema != null ? compiledSchema.getContent() : null;
+    }
+
+    public Path getSchemaFilePath(final String schemaId) {
+        final CompiledSchema compiledSchema = getCompiledSchema(schemaId);
+        return compiledSchema != null ? compiledSchema.getSchemaFilePath() : null;
+    }
+
+    /**
+     * Returns the schema as it was compiled when it was last loaded.
+     *
+     * @param schemaId the id of the schema
+     * @return the compiled schema, or null if there is no schema with that id
+     */
+    public CompiledSchema getCompiledSchema(final String schemaId) {
+        final LoadedSchema loadedSchema = snapshot.byId().get(schemaId);
+        return loadedSchema != null ? loadedSchema.compiledSchema() : null;
+    }
+}
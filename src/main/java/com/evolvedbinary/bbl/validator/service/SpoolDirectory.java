@@ -0,0 +1,352 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.RandomBasedGenerator;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.ReadableBytes;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The managed area into which CSV files are spooled before they are validated.
+ *
+ * Each instance of the application spools into its own directory, beneath a configurable
+ * root which may be placed on tmpfs or a fast local disk, and holds a lock on that directory
+ * for as long as it runs. The directories of instances which are no longer running, e.g.
+ * after a crash or a kill -9, are removed at startup and by the sweeper, as are orphaned files
+ * in this instance's directory which are older than the maximum age, i.e. those whose deletion
+ * failed or which hold no reservation. A file which holds a reservation is still being written
+ * or validated, however old it is, so it is never swept.
+ *
+ * The total size of the spooled files is limited by a quota. A writer reserves the expected
+ * size of its file before writing it; if that would exceed the quota, it waits for other files
+ * to be deleted, and fails with a {@link SpoolFullException} if none are deleted in time. A
+ * writer whose file grows beyond what it reserved never waits, as it already holds space which
+ * other waiting writers may need, and so fails at once if the quota is exhausted.
+ *
+ * Small files may instead be spooled to a memory-backed directory, such as {@code /dev/shm},
+ * which is managed in the same way but has its own, smaller, quota. A small file which does
+ * not fit within that quota, or when there is no memory-backed directory, is spooled to disk.
+ */
+@Singleton
+@ThreadSafe
+public class SpoolDirectory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpoolDirectory.class);
+    private static final String DEFAULT_ROOT_NAME = "bbl-validator-spool";
+    private static final Path SHARED_MEMORY = Path.of("/dev/shm");
+
+    private final InstanceDirectory disk;
+    private final @Nullable InstanceDirectory memory;
+    private final long maxSize;
+    private final long memoryMaxSize;
+    private final int memoryMaxFileSize;
+    private final Duration quotaWait;
+    private final Duration maxAge;
+    private final int retryAfter;
+    private final RandomBasedGenerator generator = Generators.randomBasedGenerator();
+
+    @GuardedBy("this")
+    private final Map<Path, Long> reserved = new HashMap<>();
+    /**
+     * Files which could not be deleted, and are left for the sweeper, which still hold their reservation.
+     */
+    @GuardedBy("this")
+    private final Set<Path> undeleted = new HashSet<>();
+    @GuardedBy("this")
+    private long totalSize;
+    @GuardedBy("this")
+    private long memorySize;
+
+    @Inject
+    public SpoolDirectory(@Nullable @Value("${spool.directory}") final String directory,
+                          @Value("${spool.max-size:8GB}") @ReadableBytes final long maxSize,
+                          @Value("${spool.quota-wait:30s}") final Duration quotaWait,
+                          @Value("${spool.sweep.max-age:60m}") final Duration maxAge,
+                          @Value("${validation.executor.retry-after:5}") final int retryAfter,
+                          @Value("${spool.memory.enabled:true}") final boolean memoryEnabled,
+                          @Nullable @Value("${spool.memory.getDirectory()}") final String memoryDirectory,
+                          @Value("${spool.memory.max-size:64MB}") @ReadableBytes final long memoryMaxSize,
+                          @Value("${spool.memory.max-file-size:64KB}") @ReadableBytes final long memoryMaxFileSize) {
+        this.maxSize = maxSize;
+        this.memoryMaxSize = memoryMaxSize;
+        this.memoryMaxFileSize = (int) Math.max(0, Math.min(memoryMaxFileSize, Integer.MAX_VALUE - 8));
+        this.quotaWait = quotaWait;
+        this.maxAge = maxAge;
+        this.retryAfter = retryAfter;
+
+        this.disk = new InstanceDirectory(directory == null || directory.isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"), DEFAULT_ROOT_NAME)
+                : Path.of(directory));
+        LOG.info("Spooling CSV files to: {}", disk.getDirectory());
+
+        InstanceDirectory memoryArea = null;
+        if (memoryEnabled && memoryMaxSize > 0) {
+            if (memoryDirectory != null && !memoryDirectory.isEmpty()) {
+                memoryArea = new InstanceDirectory(Path.of(memoryDirectory));
+            } else if (Files.isDirectory(SHARED_MEMORY) && Files.isWritable(SHARED_MEMORY)) {
+                memoryArea = new InstanceDirectory(SHARED_MEMORY.resolve(DEFAULT_ROOT_NAME));
+            }
+        }
+        this.memory = memoryArea;
+        if (memory != null) {
+            LOG.info("Spooling CSV files of up to {} bytes to: {}", this.memoryMaxFileSize, memory.getDirectory());
+        }
+    }
+
+    /**
+     * @return the directory of this instance, into which files are spooled
+     */
+    public Path getDirectory() {
+        return disk.getDirectory();
+    }
+
+    /**
+     * Returns the maximum size of a small file, which is written whole rather than in chunks,
+     * and spooled to memory if there is room for it.
+     *
+     * @return the maximum size of a small file, 0 if no file is small
+     */
+    public int getSmallFileMaxSize() {
+        return memoryMaxFileSize;
+    }
+
+    /**
+     * Returns a new path, with a UUID v4 filename, for a file to be spooled to.
+     *
+     * @return the path, at which no file yet exists
+     */
+    public Path newFile() {
+        return disk.getDirectory().resolve(newFilename());
+    }
+
+    /**
+     * Returns a new path, with a UUID v4 filename, for a small file to be spooled to memory,
+     * and reserves space for it in the quota of the memory-backed directory.
+     *
+     * @param size the size of the file
+     * @return the path, at which no file yet exists, or null if the file should be spooled to disk instead
+     */
+    public synchronized @Nullable Path newMemoryFile(final long size) {
+        if (memory == null || size > memoryMaxFileSize || memorySize + size > memoryMaxSize) {
+            return null;
+        }
+        final Path file = memory.getDirectory().resolve(newFilename());
+        reserved.put(file, size);
+        memorySize += size;
+        return file;
+    }
+
+    private String newFilename() {
+        return generator.generate().toString() + ".csv";
+    }
+
+    /**
+     * Reserves space in the quota for bytes about to be written to a spooled file.
+     *
+     * If the file holds no reservation yet, this waits for space to be freed if the quota is
+     * exhausted. If it already holds one, this fails at once instead, as writers which each hold
+     * part of the quota and wait for more could otherwise wait for each other until they all fail.
+     * A single file larger than the quota may still be written when no other file is spooled.
+     *
+     * @param file the spooled file
+     * @param bytes the number of bytes about to be written
+     * @throws SpoolFullException if no space was freed in time
+     * @throws InterruptedIOException if interrupted whilst waiting for space
+     */
+    public synchronized void reserve(final Path file, final long bytes) throws SpoolFullException, InterruptedIOException {
+        if (maxSize > 0) {
+            final Long held = reserved.get(file);
+            if (held != null && totalSize - held > 0 && totalSize + bytes > maxSize) {
+                throw new SpoolFullException(maxSize, retryAfter);
+            }
+            final long deadline = System.nanoTime() + quotaWait.toNanos();
+            while (totalSize > 0 && totalSize + bytes > maxSize) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SpoolFullException(maxSize, retryAfter);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted whilst waiting for space in the spool directory");
+                }
+            }
+        }
+        reserved.merge(file, bytes, Long::sum);
+        totalSize += bytes;
+    }
+
+    /**
+     * Reserves space in the quota for a spooled file, only if there is room for it now.
+     *
+     * This is for files which are optional, such as copies made to speed up validation, so that
+     * a writer which already holds space for another file never waits for more.
+     *
+     * @param file the spooled file
+     * @param bytes the number of bytes about to be written
+     * @return true if the space was reserved, false if the quota is exhausted
+     */
+    public synchronized boolean tryReserve(final Path file, final long bytes) {
+        if (maxSize > 0 && totalSize + bytes > maxSize) {
+            return false;
+        }
+        reserved.merge(file, bytes, Long::sum);
+        totalSize += bytes;
+        return true;
+    }
+
+    /**
+     * Sets the reservation of a spooled file to the size it was written with, freeing any space
+     * which was reserved for it but not used.
+     *
+     * @param file the spooled file
+     * @param size the size of the file
+     */
+    public synchronized void settle(final Path file, final long size) {
+        final Long held = reserved.get(file);
+        if (held != null && held > size && (memory == null || !file.startsWith(memory.getDirectory()))) {
+            reserved.put(file, size);
+            totalSize -= held - size;
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return the total size of the files spooled to disk, as reserved against the quota
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return the total size of the files spooled to memory, as reserved against its quota
+     */
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Deletes a spooled file, and frees the space it reserved.
+     *
+     * A file which cannot be deleted is left for the sweeper, so this never fails.
+     *
+     * @param file the spooled file
+     */
+    public void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOG.warn("Unable to delete spooled file, it will be swept later: {}", file, e);
+            synchronized (this) {
+                undeleted.add(file);
+            }
+            return;
+        }
+        release(file);
+    }
+
+    private synchronized void release(final Path file) {
+        undeleted.remove(file);
+        final Long size = reserved.remove(file);
+        if (size != null) {
+            if (memory != null && file.startsWith(memory.getDirectory())) {
+                memorySize -= size;
+            } else {
+                totalSize -= size;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Deletes orphaned files in this instance's directories which are older than the maximum age,
+     * and the directories of instances which are no longer running.
+     */
+    @Scheduled(fixedDelay = "${spool.sweep.interval:5m}")
+    void sweep() {
+        sweep(disk);
+        if (memory != null) {
+            sweep(memory);
+        }
+    }
+
+    private void sweep(final InstanceDirectory area) {
+        final FileTime expiredBefore = FileTime.from(Instant.now().minus(maxAge));
+        final List<Path> expired = new ArrayList<>();
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(area.getDirectory())) {
+            for (final Path file : files) {
+                if (!file.getFileName().toString().equals(InstanceDirectory.LOCK_FILE_NAME) && isOrphaned(file)
+                        && Files.getLastModifiedTime(file).compareTo(expiredBefore) < 0) {
+                    expired.add(file);
+                }
+            }
+        } catch (final NoSuchFileException e) {
+            // deleted between being listed and being examined
+        } catch (final IOException e) {
+            LOG.warn("Unable to sweep spool directory: {}", area.getDirectory(), e);
+        }
+        for (final Path file : expired) {
+            LOG.warn("Sweeping orphaned spooled file: {}", file);
+            delete(file);
+        }
+
+        area.removeAbandonedDirectories();
+    }
+
+    /**
+     * A file is orphaned if it holds no reservation, or if its deletion failed, as any other
+     * file is still being written or validated.
+     */
+    private synchronized boolean isOrphaned(final Path file) {
+        return !reserved.containsKey(file) || undeleted.contains(file);
+    }
+
+    @PreDestroy
+    void close() {
+        disk.close();
+        if (memory != null) {
+            memory.close();
+        }
+    }
+}
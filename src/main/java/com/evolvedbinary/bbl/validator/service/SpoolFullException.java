@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file could not be written to the {@link SpoolDirectory}, as its quota
+ * remained exhausted for longer than a writer is prepared to wait.
+ */
+public class SpoolFullException extends IOException {
+
+    private final long maxSize;
+    private final int retryAfter;
+
+    public SpoolFullException(final long maxSize, final int retryAfter) {
+        super("Spool directory has reached its maximum size of " + maxSize + " bytes");
+        this.maxSize = maxSize;
+        this.retryAfter = retryAfter;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns how long a client should wait before retrying.
+     *
+     * @return the number of seconds to wait
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
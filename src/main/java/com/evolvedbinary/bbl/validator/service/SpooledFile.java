@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.io.Utf8Error;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A file which has been streamed to the temp directory, along with
+ * what was learnt about its content as it was written.
+ *
+ * @param path the path of the temp file
+ * @param size the size of the file in bytes
+ * @param sha256 the SHA-256 hash of the content of the file, as lower case hex
+ * @param lines the number of lines in the file
+ * @param utf8Errors the positions of the first malformed UTF-8 sequences in the file, empty if the file is UTF-8
+ */
+public record SpooledFile(Path path, long size, String sha256, long lines, List<Utf8Error> utf8Errors) {
+
+    /**
+     * Returns whether the file is well-formed UTF-8.
+     *
+     * @return true if the file is UTF-8
+     */
+    public boolean isUtf8() {
+        return utf8Errors.isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.dto.SchemaInfo;
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import net.jcip.annotations.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the results of validating CSV files, so that resubmitting an identical
+ * CSV file for validation against the same schema does not validate it again.
+ *
+ * Results are keyed by the SHA-256 hash of the CSV file, which is computed as the file
+ * is spooled, together with the id, version and content hash of the schema, and the
+ * {@link ValidationOptions} which affect the result. Results are only cached for schemas which
+ * are {@link CompiledSchema#isRowLocal() row-local}, as the file checks of any other schema may
+ * give a different result for the same CSV file once the files they check change. The cache
+ * holds at most {@code validation.result-cache.max-entries} results, evicting the least
+ * recently used, and a result expires {@code validation.result-cache.ttl} after it was cached.
+ */
+@Singleton
+public class ValidationResultCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationResultCache.class);
+
+    private record Entry(ValidationResponse response, long expiresAt) {
+    }
+
+    private final SchemaService schemaService;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxFailures;
+
+    @GuardedBy("this")
+    private final LinkedHashMap<String, Entry> entries;
+
+    @Inject
+    public ValidationResultCache(final SchemaService schemaService,
+                                 @Value("${validation.result-cache.enabled:true}") final boolean enabled,
+                                 @Value("${validation.result-cache.max-entries:1000}") final int maxEntries,
+                                 @Value("${validation.result-cache.ttl:1h}") final Duration ttl,
+                                 @Value("${validation.max-errors:1000}") final int maxFailures) {
+        this.schemaService = schemaService;
+        this.enabled = enabled && maxEntries > 0;
+        this.ttlMillis = ttl.toMillis();
+        this.maxFailures = maxFailures;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cached result of validating a CSV file.
+     *
+     * @param csvFile the spooled CSV file
+     * @param schemaId the id of the schema
+     * @param options the options the CSV file is to be validated with
+     * @return the cached result, flagged as cached, or null if there is none
+     */
+    public @Nullable ValidationResponse get(final SpooledFile csvFile, final String schemaId, final ValidationOptions options) {
+        final String key = key(csvFile, schemaId, options);
+        if (key == null) {
+            return null;
+        }
+
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+        }
+
+        if (entry == null) {
+            return null;
+        }
+        LOG.trace("Validation result cache hit: {}", key);
+        return entry.response().asCached();
+    }
+
+    /**
+     * Caches the result of validating a CSV file.
+     *
+     * Results with more failures than {@code validation.max-errors}, which can only come from
+     * streamed validations, are not cached as they could be arbitrarily large.
+     *
+     * @param csvFile the spooled CSV file
+     * @param schemaId the id of the schema
+     * @param options the options the CSV file was validated with
+     * @param response the result of validating the CSV file
+     */
+    public void put(final SpooledFile csvFile, final String schemaId, final ValidationOptions options, final ValidationResponse response) {
+        if (response.getFailures().size() > maxFailures) {
+            return;
+        }
+        final String key = key(csvFile, schemaId, options);
+        if (key == null) {
+            return;
+        }
+
+        final Entry entry = new Entry(response, System.currentTimeMillis() + ttlMillis);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private @Nullable String key(final SpooledFile csvFile, final String schemaId, final ValidationOptions options) {
+        if (!enabled) {
+            return null;
+        }
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema(schemaId);
+        if (compiledSchema == null || !compiledSchema.isRowLocal()) {
+            return null;
+        }
+        final SchemaInfo schemaInfo = schemaService.getSchemaInfo(schemaId);
+        final String schemaVersion = schemaInfo != null ? schemaInfo.getVersion() : null;
+
+        // the schema content hash is included, so that editing a schema without bumping its version can not return stale results
+        return csvFile.sha256() + '/' + compiledSchema.getCacheKey() + '/' + schemaVersion + '/' + options.failFast() + '/' + options.maxErrors();
+    }
+}
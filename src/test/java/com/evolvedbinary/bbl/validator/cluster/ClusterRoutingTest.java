@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.cluster;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs this node as a member of a cluster whose only other node, which owns every CSV file, is
+ * started alongside it in the same JVM.
+ */
+@MicronautTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClusterRoutingTest implements TestPropertyProvider {
+
+    private static final String CSV = """
+            c1,c2,c3
+            cluster,routed,clusterrouted
+            """;
+
+    @Inject
+    @Client("/validate")
+    HttpClient client;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ClusterService clusterService;
+
+    private EmbeddedServer owner;
+
+    @Override
+    public Map<String, String> getProperties() {
+        owner = ApplicationContext.run(EmbeddedServer.class, "test");
+        return Map.of(
+                "cluster.enabled", "true",
+                "cluster.self", "http://localhost:1",
+                "cluster.nodes", owner.getURL().toString());
+    }
+
+    @AfterAll
+    void stopOwner() {
+        owner.close();
+    }
+
+    @Test
+    void validationIsForwardedToOwner() {
+        assertTrue(clusterService.isEnabled());
+        assertEquals(owner.getURL().toString(), clusterService.ownerOf("0123456789abcdef"));
+
+        final ValidationResponse first = validate();
+        assertTrue(first.isPassed());
+        assertFalse(first.isCached());
+
+        // answered from the owner's result cache
+        final ValidationResponse second = validate();
+        assertTrue(second.isPassed());
+        assertTrue(second.isCached());
+
+        final Counter forwarded = meterRegistry.find("bbl.cluster.forwarded")
+                .tag("schema", "concat")
+                .tag("outcome", "forwarded")
+                .counter();
+        assertNotNull(forwarded);
+        assertEquals(2, forwarded.count());
+        assertNull(meterRegistry.find("bbl.validation.duration").tag("mode", "body").timer());
+
+        final Timer ownerValidations = owner.getApplicationContext().getBean(MeterRegistry.class)
+                .find("bbl.validation.duration")
+                .tag("schema", "concat")
+                .tag("mode", "cluster")
+                .timer();
+        assertNotNull(ownerValidations);
+        assertEquals(1, ownerValidations.count());
+    }
+
+    private ValidationResponse validate() {
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", CSV)
+                .contentType(MediaType.TEXT_CSV);
+        request.getParameters().add("schema-id", "concat");
+        return client.toBlocking().retrieve(request, ValidationResponse.class);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    void sameKeyHasSameOwner() {
+        final ConsistentHashRing ring = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 128);
+        final ConsistentHashRing other = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 128);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ring.ownerOf("key-" + i), ring.ownerOf("key-" + i));
+            assertEquals(ring.ownerOf("key-" + i), other.ownerOf("key-" + i));
+        }
+    }
+
+    @Test
+    void keysAreSpreadAcrossNodes() {
+        final List<String> nodes = List.of("http://a", "http://b", "http://c", "http://d");
+        final ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+
+        final Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.ownerOf("key-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), owned.size());
+        for (final int count : owned.values()) {
+            // within half of an even share
+            assertTrue(count > KEYS / nodes.size() / 2, "Unevenly spread: " + owned);
+        }
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        final ConsistentHashRing before = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 128);
+        final ConsistentHashRing after = new ConsistentHashRing(List.of("http://a", "http://b", "http://c", "http://d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            final String ownerBefore = before.ownerOf("key-" + i);
+            final String ownerAfter = after.ownerOf("key-" + i);
+            if (!ownerBefore.equals(ownerAfter)) {
+                assertEquals("http://d", ownerAfter);
+                moved++;
+            }
+        }
+
+        // about a quarter of the keys move to the new node
+        assertTrue(moved > KEYS / 8 && moved < KEYS / 2, "Moved: " + moved);
+    }
+
+    @Test
+    void singleNodeOwnsEverything() {
+        final ConsistentHashRing ring = new ConsistentHashRing(List.of("http://a"), 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("http://a", ring.ownerOf("key-" + i));
+        }
+    }
+
+    @Test
+    void ringMustHaveNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+@Property(name = "decompression.max-size", value = "64KB")
+public class DecompressionLimitTest {
+
+    @Inject
+    @Client("/validate")
+    HttpClient client;
+
+    @Test
+    void gzipBombIsRejected() throws IOException {
+        final byte[] compressed = gzip(csv(4 * 1024 * 1024));
+        assertTrue(compressed.length < 64 * 1024);
+
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", compressed)
+                .contentType(MediaType.TEXT_CSV)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        assertFileTooLarge(request);
+    }
+
+    @Test
+    void gzipBombDetectedByMagicBytesIsRejected() throws IOException {
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", gzip(csv(4 * 1024 * 1024)))
+                .contentType(MediaType.TEXT_CSV);
+
+        assertFileTooLarge(request);
+    }
+
+    @Test
+    void decompressedBodyIsRejected() {
+        // as if the body had already been decompressed, and its Content-Encoding removed, before the controller
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", csv(128 * 1024))
+                .contentType(MediaType.TEXT_CSV);
+
+        assertFileTooLarge(request);
+    }
+
+    private void assertFileTooLarge(final MutableHttpRequest<byte[]> request) {
+        request.getParameters().add("schema-id", "concat");
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.FILE_TOO_LARGE, errorBody.getCode());
+    }
+
+    private static byte[] csv(final int size) {
+        final StringBuilder csv = new StringBuilder("c1,c2,c3\n");
+        while (csv.length() < size) {
+            csv.append("a,b,ab\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.executor.BoundedExecutorService;
+import com.evolvedbinary.bbl.validator.executor.ValidationExecutorFactory;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+@Property(name = "validation.executor.max-concurrency", value = "1")
+@Property(name = "validation.executor.queue-depth", value = "1")
+@Property(name = "validation.executor.retry-after", value = "9")
+@Property(name = "admission.enabled", value = "false")
+public class ExecutorSaturationTest {
+
+    @Inject
+    @Client("/validate")
+    HttpClient client;
+
+    @Inject
+    @Named(ValidationExecutorFactory.VALIDATION)
+    BoundedExecutorService validationExecutor;
+
+    @Test
+    void saturatedExecutorRespondsServerBusy() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(2);
+        try {
+            // one task running and one queued fills the executor
+            for (int i = 0; i < 2; i++) {
+                validationExecutor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.countDown();
+                });
+            }
+            assertEquals(2, validationExecutor.getInFlight());
+
+            final MutableHttpRequest<String> request = HttpRequest.POST("/", "c1,c2,c3\na,b,ab\n")
+                    .contentType(MediaType.TEXT_CSV);
+            request.getParameters().add("schema-id", "concat");
+
+            final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+            assertEquals("9", exception.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER));
+
+            final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+            assertNotNull(errorBody);
+            assertEquals(ErrorResponse.Code.SERVER_BUSY, errorBody.getCode());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+    }
+}
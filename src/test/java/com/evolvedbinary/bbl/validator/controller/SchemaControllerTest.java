@@ -18,10 +18,13 @@ package com.evolvedbinary.bbl.validator.controller;
 
 import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
 import com.evolvedbinary.bbl.validator.dto.SchemaInfo;
+import com.evolvedbinary.bbl.validator.io.Compression;
+import com.evolvedbinary.bbl.validator.io.PrecompressedContent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -33,14 +36,17 @@ import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
 import static com.evolvedbinary.bbl.validator.controller.SchemaController.CSV_SCHEMA_MEDIA_TYPE;
 import static com.evolvedbinary.bbl.validator.filter.ApiVersionFilter.BBLVALIDATOR_VERSION_HEADER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @MicronautTest
@@ -117,6 +123,73 @@ public class SchemaControllerTest {
         assertEquals(Optional.of(expectedSchema), response.getBody());
     }
 
+    @Test
+    void getUnchangedSchema() {
+        final HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/concat"), String.class);
+        assertEquals(HttpStatus.OK, response.getStatus());
+        final String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotNull(response.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+
+        final HttpRequest<Void> request = HttpRequest.GET("/concat").header(HttpHeaders.IF_NONE_MATCH, etag);
+        final HttpResponse<String> notModified = client.toBlocking().exchange(request, String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatus());
+        assertEquals(etag, notModified.getHeaders().get(HttpHeaders.ETAG));
+        assertFalse(notModified.getBody().isPresent());
+    }
+
+    @Test
+    void getUnchangedSchemaList() {
+        final HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/"), String.class);
+        final String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        final HttpRequest<Void> request = HttpRequest.GET("/").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag);
+        final HttpResponse<String> notModified = client.toBlocking().exchange(request, String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatus());
+    }
+
+    @Test
+    void schemaListETagDiffersByHost() {
+        final HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/").header(HttpHeaders.HOST, "one.example"), String.class);
+        final String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        // the list of another host has other URLs, so is not the same content
+        final HttpRequest<Void> request = HttpRequest.GET("/")
+                .header(HttpHeaders.HOST, "two.example")
+                .header(HttpHeaders.IF_NONE_MATCH, etag);
+        final HttpResponse<String> other = client.toBlocking().exchange(request, String.class);
+        assertEquals(HttpStatus.OK, other.getStatus());
+        assertNotEquals(etag, other.getHeaders().get(HttpHeaders.ETAG));
+        assertTrue(other.body().contains("http://two.example/"));
+    }
+
+    @Test
+    void preferredCompression() {
+        final PrecompressedContent content = PrecompressedContent.of("c1,c2,c3\n".repeat(100).getBytes(StandardCharsets.UTF_8), "hash");
+
+        assertEquals(Compression.NONE, SchemaController.preferredCompression(null, content));
+        assertEquals(Compression.GZIP, SchemaController.preferredCompression("gzip, deflate", content));
+        assertEquals(Compression.ZSTD, SchemaController.preferredCompression("gzip, zstd", content));
+        assertEquals(Compression.GZIP, SchemaController.preferredCompression("gzip, zstd;q=0", content));
+        assertEquals(Compression.NONE, SchemaController.preferredCompression("br", content));
+
+        // not worth compressing
+        final PrecompressedContent tiny = PrecompressedContent.of("c1".getBytes(StandardCharsets.UTF_8), "hash");
+        assertEquals(Compression.NONE, SchemaController.preferredCompression("gzip, zstd", tiny));
+    }
+
+    @Test
+    void matchesETag() {
+        assertTrue(SchemaController.matchesETag("\"abc\"", "abc"));
+        assertTrue(SchemaController.matchesETag("W/\"abc-gzip\"", "abc"));
+        assertTrue(SchemaController.matchesETag("\"xyz\", \"abc-zstd\"", "abc"));
+        assertTrue(SchemaController.matchesETag("*", "abc"));
+        assertFalse(SchemaController.matchesETag("\"abcd\"", "abc"));
+        assertFalse(SchemaController.matchesETag(null, "abc"));
+    }
+
     @Test
     void getInvalidSchema() {
         final HttpRequest<Void> request = HttpRequest.GET("/none");
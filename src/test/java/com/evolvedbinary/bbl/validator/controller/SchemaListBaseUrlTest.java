@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+@Property(name = "schema.http.base-url", value = "https://validator.example/")
+public class SchemaListBaseUrlTest {
+
+    @Inject
+    @Client("/schema")
+    HttpClient client;
+
+    @Test
+    void schemaListIgnoresHost() {
+        final HttpResponse<String> one = client.toBlocking().exchange(HttpRequest.GET("/").header(HttpHeaders.HOST, "one.example"), String.class);
+        final HttpResponse<String> two = client.toBlocking().exchange(HttpRequest.GET("/").header(HttpHeaders.HOST, "two.example"), String.class);
+
+        final String etag = one.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(etag, two.getHeaders().get(HttpHeaders.ETAG));
+        assertTrue(two.body().contains("https://validator.example/schema/"));
+        assertFalse(two.body().contains("two.example"));
+    }
+}
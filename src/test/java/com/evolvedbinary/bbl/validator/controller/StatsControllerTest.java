@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import com.evolvedbinary.bbl.validator.dto.ConnectionPoolStats;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static com.evolvedbinary.bbl.validator.filter.ApiVersionFilter.BBLVALIDATOR_VERSION_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+public class StatsControllerTest {
+
+    @Inject
+    @Client("/stats")
+    HttpClient client;
+
+    @Value("${api.version}")
+    String version;
+
+    @Test
+    void getDownloadPoolStats() {
+        final HttpResponse<ConnectionPoolStats> response = client.toBlocking().exchange(HttpRequest.GET("/download-pool"), ConnectionPoolStats.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(Optional.of(MediaType.APPLICATION_JSON_TYPE), response.getContentType());
+        assertEquals(version, response.getHeaders().get(BBLVALIDATOR_VERSION_HEADER));
+
+        assertTrue(response.getBody().isPresent());
+        final ConnectionPoolStats stats = response.getBody().get();
+        assertEquals(20, stats.getMax());
+        assertTrue(stats.getLeased() >= 0);
+        assertTrue(stats.getAvailable() >= 0);
+    }
+}
@@ -15,23 +15,35 @@
  */
 package com.evolvedbinary.bbl.validator.controller;
 
+import com.evolvedbinary.bbl.validator.dto.BatchValidationForm;
 import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.dto.ValidationFailure;
 import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.http.*;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.runtime.server.EmbeddedServer;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static com.evolvedbinary.bbl.validator.filter.ApiVersionFilter.BBLVALIDATOR_VERSION_HEADER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,6 +51,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @MicronautTest
 public class ValidateControllerTest {
@@ -81,6 +94,50 @@ public class ValidateControllerTest {
         assertTrue(validationResponse.getExecutionTime() > -1);
     }
 
+    @Test
+    void uploadAndValidateLargeCsv() {
+        final StringBuilder csvContent = new StringBuilder("c1,c2,c3\n");
+        for (int i = 0; i < 50_000; i++) {
+            csvContent.append("row").append(',').append(i).append(',').append("row").append(i).append('\n');
+        }
+
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csvContent.toString())
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final HttpResponse<ValidationResponse> response = client.toBlocking().exchange(request, ValidationResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getBody().isPresent());
+
+        final ValidationResponse validationResponse = response.getBody().get();
+
+        assertTrue(validationResponse.isPassed());
+        assertTrue(validationResponse.isUtf8Valid());
+        assertTrue(validationResponse.getFailures().isEmpty());
+    }
+
+    @Test
+    void uploadAndValidateSameCsvTwice() {
+        // unique content, so that no other test can have already cached the result
+        final String csvContent = "c1,c2,c3\nrow," + System.nanoTime() + ",row\n";
+
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csvContent)
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final ValidationResponse first = client.toBlocking().retrieve(request, ValidationResponse.class);
+        assertTrue(first.isPassed());
+        assertFalse(first.isCached());
+
+        final ValidationResponse second = client.toBlocking().retrieve(request, ValidationResponse.class);
+        assertTrue(second.isPassed());
+        assertTrue(second.isCached());
+        assertEquals(first.getExecutionTime(), second.getExecutionTime());
+    }
+
     @Test
     void uploadAndValidateInvalidCsv() throws IOException {
         final Path invalidCsvFile = Path.of(schemaTestDirectory, "concatFail.csv");
@@ -120,6 +177,217 @@ public class ValidateControllerTest {
         assertTrue(validationResponse.getExecutionTime() > -1);
     }
 
+    @Test
+    void uploadAndValidateInvalidCsvWithMaxErrors() {
+        final StringBuilder csvContent = new StringBuilder("c1,c2,c3\n");
+        for (int i = 0; i < 5; i++) {
+            csvContent.append("a,b,c").append(i).append('\n');
+        }
+
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csvContent.toString())
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final ValidationResponse allFailures = client.toBlocking().retrieve(request, ValidationResponse.class);
+        assertFalse(allFailures.isPassed());
+        assertEquals(5, allFailures.getFailures().size());
+        assertFalse(allFailures.isTruncated());
+
+        params.add("max-errors", "2");
+
+        final ValidationResponse someFailures = client.toBlocking().retrieve(request, ValidationResponse.class);
+        assertFalse(someFailures.isPassed());
+        assertFalse(someFailures.isCached());
+        assertEquals(2, someFailures.getFailures().size());
+        assertTrue(someFailures.isTruncated());
+        assertEquals(allFailures.getFailures().get(0).getMessage(), someFailures.getFailures().get(0).getMessage());
+    }
+
+    @Test
+    void uploadAndValidateInvalidCsvAsNdjson() throws IOException {
+        final StringBuilder csvContent = new StringBuilder("c1,c2,c3\n");
+        for (int i = 0; i < 5; i++) {
+            csvContent.append("a,b,c").append(i).append('\n');
+        }
+
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csvContent.toString())
+                .contentType(MediaType.TEXT_CSV)
+                .accept(ValidateController.APPLICATION_NDJSON_TYPE);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final HttpResponse<String> response = client.toBlocking().exchange(request, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(Optional.of(ValidateController.APPLICATION_NDJSON_TYPE), response.getContentType());
+
+        final String[] lines = response.body().split("\n");
+        assertEquals(6, lines.length);
+
+        final ObjectMapper mapper = new ObjectMapper();
+        for (int i = 0; i < 5; i++) {
+            final JsonNode failure = mapper.readTree(lines[i]);
+            assertEquals(i + 1, failure.get("line").asInt());
+            assertEquals(3, failure.get("column").asInt());
+            assertFalse(failure.get("message").asText().isEmpty());
+        }
+
+        final JsonNode summary = mapper.readTree(lines[5]);
+        assertFalse(summary.get("passed").asBoolean());
+        assertTrue(summary.get("utf8Valid").asBoolean());
+        assertFalse(summary.get("truncated").asBoolean());
+        assertTrue(summary.get("failures").isEmpty());
+    }
+
+    @Test
+    void uploadAndValidateNonUtf8CsvWithFailFast() {
+        final byte[] csvContent = { 'c', '1', ',', 'c', '2', ',', 'c', '3', '\n', 'a', ',', 'b', ',', (byte) 0xE9, '\n' };
+
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", csvContent)
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+        params.add("fail-fast", "true");
+
+        final HttpResponse<ValidationResponse> response = client.toBlocking().exchange(request, ValidationResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getBody().isPresent());
+
+        final ValidationResponse validationResponse = response.getBody().get();
+        assertFalse(validationResponse.isPassed());
+        assertFalse(validationResponse.isUtf8Valid());
+        assertEquals(1, validationResponse.getFailures().size());
+
+        final ValidationFailure failure = validationResponse.getFailures().get(0);
+        assertEquals(2, failure.getLine());
+        assertEquals(5, failure.getColumn());
+        assertTrue(failure.getMessage().startsWith("[UTF-8 Error]"));
+        assertTrue(failure.getMessage().endsWith("offset 13"));
+    }
+
+    @Test
+    void uploadAndValidateMultipartCsv() throws IOException {
+        final byte[] csvContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatFail.csv"));
+
+        final MultipartBody body = MultipartBody.builder()
+                .addPart("file", "concatFail.csv", MediaType.TEXT_CSV_TYPE, csvContent)
+                .build();
+        final MutableHttpRequest<MultipartBody> request = HttpRequest.POST("/", body)
+                .contentType(MediaType.MULTIPART_FORM_DATA_TYPE);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final HttpResponse<ValidationResponse> response = client.toBlocking().exchange(request, ValidationResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getBody().isPresent());
+
+        final ValidationResponse validationResponse = response.getBody().get();
+        assertFalse(validationResponse.isPassed());
+        assertTrue(validationResponse.isUtf8Valid());
+        assertFalse(validationResponse.getFailures().isEmpty());
+    }
+
+    @Test
+    void uploadMultipartWithoutFile() {
+        final MultipartBody body = MultipartBody.builder()
+                .addPart("other", "value")
+                .build();
+        final MutableHttpRequest<MultipartBody> request = HttpRequest.POST("/", body)
+                .contentType(MediaType.MULTIPART_FORM_DATA_TYPE);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.NO_CSV, errorBody.getCode());
+    }
+
+    @Test
+    void uploadMultipartWithUnknownSchema() throws IOException {
+        final byte[] csvContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatFail.csv"));
+
+        final MultipartBody body = MultipartBody.builder()
+                .addPart("file", "concatFail.csv", MediaType.TEXT_CSV_TYPE, csvContent)
+                .build();
+        final MutableHttpRequest<MultipartBody> request = HttpRequest.POST("/", body)
+                .contentType(MediaType.MULTIPART_FORM_DATA_TYPE);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "unknown");
+
+        // the upload is discarded, rather than left unread
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.SCHEMA_NOT_FOUND, errorBody.getCode());
+    }
+
+    @Test
+    void uploadAndValidateGzipCsv() throws IOException {
+        final byte[] csvContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatFail.csv"));
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(csvContent);
+        }
+
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", compressed.toByteArray())
+                .contentType(MediaType.TEXT_CSV)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final ValidationResponse validationResponse = client.toBlocking().retrieve(request, ValidationResponse.class);
+
+        assertFalse(validationResponse.isPassed());
+        assertTrue(validationResponse.isUtf8Valid());
+        assertFalse(validationResponse.getFailures().isEmpty());
+    }
+
+    @Test
+    void uploadAndValidateZipCsvDetectedByMagicBytes() throws IOException {
+        final byte[] csvContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatPass.csv"));
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final ZipOutputStream zip = new ZipOutputStream(compressed)) {
+            zip.putNextEntry(new ZipEntry("concatPass.csv"));
+            zip.write(csvContent);
+            zip.closeEntry();
+        }
+
+        // no Content-Encoding, the compression is detected from the content itself
+        final MutableHttpRequest<byte[]> request = HttpRequest.POST("/", compressed.toByteArray())
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final ValidationResponse validationResponse = client.toBlocking().retrieve(request, ValidationResponse.class);
+
+        assertTrue(validationResponse.isPassed());
+        assertTrue(validationResponse.isUtf8Valid());
+    }
+
+    @Test
+    void uploadAndValidateCsvWithUnsupportedContentEncoding() {
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", "c1,c2,c3\n")
+                .contentType(MediaType.TEXT_CSV)
+                .header(HttpHeaders.CONTENT_ENCODING, "compress");
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.UNSUPPORTED_CONTENT_ENCODING, errorBody.getCode());
+    }
+
     @Test
     void uploadAndValidateCsvWithNonExistingSchema() throws IOException {
         final Path validCsvFile = Path.of(schemaTestDirectory, "concatPass.csv");
@@ -488,4 +756,129 @@ public class ValidateControllerTest {
         assertTrue(validationResponse.getExecutionTime() > -1);
     }
 
+    @Test
+    void validateBatchOfUrls() throws IOException {
+        final String passUrl = server.getURL() + "/mock-data/concatPass.csv";
+        final String failUrl = server.getURL() + "/mock-data/concatFail.csv";
+        final String nonResolvableUrl = "nothing";
+        final BatchValidationForm form = new BatchValidationForm("concat", List.of(passUrl, failUrl, nonResolvableUrl));
+
+        final HttpRequest<BatchValidationForm> request = HttpRequest.POST("/batch", form)
+                .contentType(MediaType.APPLICATION_JSON_TYPE);
+
+        final HttpResponse<String> response = client.toBlocking().exchange(request, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(Optional.of(MediaType.APPLICATION_JSON_TYPE), response.getContentType());
+        assertEquals(version, response.getHeaders().get(BBLVALIDATOR_VERSION_HEADER));
+
+        final JsonNode results = new ObjectMapper().readTree(response.body());
+        assertEquals(3, results.size());
+
+        assertEquals(0, results.get(0).get("index").asInt());
+        assertEquals(passUrl, results.get(0).get("url").asText());
+        assertTrue(results.get(0).get("result").get("passed").asBoolean());
+
+        assertEquals(1, results.get(1).get("index").asInt());
+        assertEquals(failUrl, results.get(1).get("url").asText());
+        assertFalse(results.get(1).get("result").get("passed").asBoolean());
+        assertFalse(results.get(1).get("result").get("failures").isEmpty());
+
+        assertEquals(2, results.get(2).get("index").asInt());
+        assertNull(results.get(2).get("result"));
+        assertEquals(ErrorResponse.Code.NON_RESOLVABLE_URL.name(), results.get(2).get("error").get("code").asText());
+    }
+
+    @Test
+    void validateBatchOfUrlsAsNdjson() throws IOException {
+        final List<String> urls = List.of(
+                server.getURL() + "/mock-data/concatPass.csv",
+                server.getURL() + "/mock-data/concatFail.csv",
+                server.getURL() + "/mock-data/concatPass.csv");
+        final BatchValidationForm form = new BatchValidationForm("concat", urls);
+
+        final HttpRequest<BatchValidationForm> request = HttpRequest.POST("/batch", form)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .accept(ValidateController.APPLICATION_NDJSON_TYPE);
+
+        final HttpResponse<String> response = client.toBlocking().exchange(request, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(Optional.of(ValidateController.APPLICATION_NDJSON_TYPE), response.getContentType());
+
+        final String[] lines = response.body().split("\n");
+        assertEquals(urls.size(), lines.length);
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final Set<Integer> indexes = new HashSet<>();
+        for (final String line : lines) {
+            final JsonNode result = mapper.readTree(line);
+            final int index = result.get("index").asInt();
+            indexes.add(index);
+            assertEquals(urls.get(index), result.get("url").asText());
+            assertEquals(index != 1, result.get("result").get("passed").asBoolean());
+        }
+        assertEquals(Set.of(0, 1, 2), indexes);
+    }
+
+    @Test
+    void validateBatchWithNonExistingSchema() {
+        final BatchValidationForm form = new BatchValidationForm("nonExistingSchema", List.of(server.getURL() + "/mock-data/concatPass.csv"));
+
+        final HttpRequest<BatchValidationForm> request = HttpRequest.POST("/batch", form)
+                .contentType(MediaType.APPLICATION_JSON_TYPE);
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.SCHEMA_NOT_FOUND, errorBody.getCode());
+    }
+
+    @Test
+    void validateCsvAsynchronously() throws IOException, InterruptedException {
+        final Path validCsvFile = Path.of(schemaTestDirectory, "concatPass.csv");
+        final String csvContent = Files.readString(validCsvFile);
+
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csvContent)
+                .contentType(MediaType.TEXT_CSV);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+        params.add("async", "true");
+
+        final HttpResponse<String> response = client.toBlocking().exchange(request, String.class);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatus());
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final JsonNode submitted = mapper.readTree(response.body());
+        final String jobId = submitted.get("id").asText();
+        assertEquals("concat", submitted.get("schemaId").asText());
+        assertEquals("QUEUED", submitted.get("status").asText());
+        assertEquals(ValidationJobController.JOBS_PATH + "/" + jobId, response.getHeaders().get(HttpHeaders.LOCATION));
+
+        JsonNode job = submitted;
+        for (int i = 0; i < 100 && !job.get("status").asText().equals("COMPLETED"); i++) {
+            Thread.sleep(50);
+            job = mapper.readTree(client.toBlocking().retrieve(HttpRequest.GET("/jobs/" + jobId), String.class));
+        }
+
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertTrue(job.get("completedAt").asLong() >= job.get("createdAt").asLong());
+        assertTrue(job.get("result").get("passed").asBoolean());
+        assertTrue(job.get("result").get("failures").isEmpty());
+    }
+
+    @Test
+    void getNonExistingValidationJob() {
+        final HttpRequest<?> request = HttpRequest.GET("/jobs/00000000-0000-0000-0000-000000000000");
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.JOB_NOT_FOUND, errorBody.getCode());
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.controller;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.multipart.MultipartBody;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+public class ValidationViewControllerTest {
+
+    private static final String VALID_STATUS = "(?s).*<strong>\\s*Valid\\s*</strong>.*";
+    private static final String INVALID_STATUS = "(?s).*<strong>\\s*Invalid\\s*</strong>.*";
+
+    @Inject
+    @Client("/views")
+    HttpClient client;
+
+    @Value("${schema.directory}")
+    String schemaTestDirectory;
+
+    @Test
+    void uploadAndValidateFile() throws IOException {
+        final byte[] csvContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatFail.csv"));
+
+        final MultipartBody body = MultipartBody.builder()
+                .addPart("schemaId", "concat")
+                .addPart("csvSource", "file")
+                .addPart("csvFile", "concatFail.csv", MediaType.TEXT_CSV_TYPE, csvContent)
+                .build();
+
+        final String page = submit(body);
+        assertTrue(page.matches(INVALID_STATUS));
+    }
+
+    @Test
+    void uploadedFileIsDiscardedForOtherSource() throws IOException {
+        final String csvContent = Files.readString(Path.of(schemaTestDirectory, "concatPass.csv"));
+        final byte[] fileContent = Files.readAllBytes(Path.of(schemaTestDirectory, "concatFail.csv"));
+
+        // the content is validated, and the file, which was also sent, is discarded
+        final MultipartBody body = MultipartBody.builder()
+                .addPart("schemaId", "concat")
+                .addPart("csvSource", "content")
+                .addPart("csvContent", csvContent)
+                .addPart("csvFile", "concatFail.csv", MediaType.TEXT_CSV_TYPE, fileContent)
+                .build();
+
+        final String page = submit(body);
+        assertTrue(page.matches(VALID_STATUS));
+        assertFalse(page.matches(INVALID_STATUS));
+    }
+
+    private String submit(final MultipartBody body) {
+        final HttpResponse<String> response = client.toBlocking().exchange(
+                HttpRequest.POST("/validate", body).contentType(MediaType.MULTIPART_FORM_DATA_TYPE), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        final String page = response.body();
+        assertNotNull(page);
+        return page;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedExecutorServiceTest {
+
+    @Test
+    void platformExecutorRejectsWhenSaturated() throws InterruptedException {
+        rejectsWhenSaturated(BoundedExecutorService.Type.PLATFORM);
+    }
+
+    @Test
+    void virtualExecutorRejectsWhenSaturated() throws InterruptedException {
+        rejectsWhenSaturated(BoundedExecutorService.Type.VIRTUAL);
+    }
+
+    private void rejectsWhenSaturated(final BoundedExecutorService.Type type) throws InterruptedException {
+        final BoundedExecutorService executor = new BoundedExecutorService("test", type, 2, 1, 7);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.countDown();
+                });
+            }
+            assertEquals(3, executor.getInFlight());
+
+            final ExecutorSaturatedException exception = assertThrows(ExecutorSaturatedException.class, () -> executor.execute(() -> { }));
+            assertEquals(7, exception.getRetryAfter());
+
+            release.countDown();
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.filter;
+
+import com.evolvedbinary.bbl.validator.dto.ErrorResponse;
+import com.evolvedbinary.bbl.validator.dto.ValidationResponse;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+@Property(name = "admission.client.bytes-per-second", value = "1KB")
+@Property(name = "admission.client.burst", value = "1KB")
+@Property(name = "admission.api-keys", value = "first,second")
+public class AdmissionControlFilterTest {
+
+    @Inject
+    @Client("/validate")
+    HttpClient client;
+
+    @Test
+    void clientOverItsRateIsRejected() {
+        final String csv = csv();
+
+        final ValidationResponse admitted = client.toBlocking().retrieve(request(csv, "first"), ValidationResponse.class);
+        assertTrue(admitted.isPassed());
+
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(request(csv, "first"), String.class));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals("1", exception.getResponse().getHeaders().get(HttpHeaders.RETRY_AFTER));
+
+        final ErrorResponse errorBody = exception.getResponse().getBody(ErrorResponse.class).orElse(null);
+        assertNotNull(errorBody);
+        assertEquals(ErrorResponse.Code.TOO_MANY_REQUESTS, errorBody.getCode());
+
+        // other clients are unaffected
+        final ValidationResponse other = client.toBlocking().retrieve(request(csv, "second"), ValidationResponse.class);
+        assertTrue(other.isPassed());
+    }
+
+    @Test
+    void unknownApiKeysAreIgnored() {
+        final String csv = csv();
+
+        final ValidationResponse admitted = client.toBlocking().retrieve(request(csv, "unknown-1"), ValidationResponse.class);
+        assertTrue(admitted.isPassed());
+
+        // a new key does not escape the limits of the client's address
+        final HttpClientResponseException exception = assertThrows(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(request(csv, "unknown-2"), String.class));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+    }
+
+    private static String csv() {
+        final StringBuilder csv = new StringBuilder("c1,c2,c3\n");
+        while (csv.length() < 2048) {
+            csv.append("a,b,ab\n");
+        }
+        return csv.toString();
+    }
+
+    private static MutableHttpRequest<String> request(final String csv, final String apiKey) {
+        final MutableHttpRequest<String> request = HttpRequest.POST("/", csv)
+                .contentType(MediaType.TEXT_CSV)
+                .header("X-API-Key", apiKey);
+        request.getParameters().add("schema-id", "concat");
+        return request;
+    }
+}
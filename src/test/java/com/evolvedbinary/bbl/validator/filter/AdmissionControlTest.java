@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void concurrencyIsLimitedPerClient() throws AdmissionRejectedException {
+        final AdmissionControl admissionControl = new AdmissionControl(true, 2, 0, 0, 0, 3, now::get);
+
+        final AdmissionControl.Permit first = admissionControl.admit("a", 10);
+        admissionControl.admit("a", 10);
+        final AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("a", 10));
+        assertEquals(AdmissionControl.Reason.CONCURRENCY, e.getReason());
+        assertEquals(3, e.getRetryAfter());
+
+        // other clients are unaffected
+        assertNotNull(admissionControl.admit("b", 10));
+
+        first.release();
+        // releasing twice has no further effect
+        first.release();
+        admissionControl.admit("a", 10);
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("a", 10));
+    }
+
+    @Test
+    void bytesAreRateLimitedPerClient() throws AdmissionRejectedException {
+        final AdmissionControl admissionControl = new AdmissionControl(true, 0, 100, 200, 0, 1, now::get);
+
+        admissionControl.admit("a", 150).release();
+        final AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("a", 150));
+        assertEquals(AdmissionControl.Reason.RATE, e.getReason());
+        assertEquals(1, e.getRetryAfter());
+
+        // other clients are unaffected
+        admissionControl.admit("b", 150).release();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        admissionControl.admit("a", 150).release();
+
+        // a request larger than the burst is admitted once the bucket is full
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        admissionControl.admit("a", 10_000).release();
+        final AdmissionRejectedException tooSoon = assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("a", 10_000));
+        assertEquals(2, tooSoon.getRetryAfter());
+    }
+
+    @Test
+    void inFlightBytesAreLimited() throws AdmissionRejectedException {
+        final AdmissionControl admissionControl = new AdmissionControl(true, 0, 0, 0, 100, 1, now::get);
+
+        // a single request larger than the budget is admitted when nothing else is in flight
+        final AdmissionControl.Permit large = admissionControl.admit("a", 500);
+        final AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("b", 1));
+        assertEquals(AdmissionControl.Reason.IN_FLIGHT_BYTES, e.getReason());
+        large.release();
+        assertEquals(0, admissionControl.getInFlightBytes());
+
+        final AdmissionControl.Permit first = admissionControl.admit("a", 60);
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("b", 60));
+        admissionControl.admit("b", 40);
+        assertEquals(100, admissionControl.getInFlightBytes());
+        first.release();
+        assertEquals(40, admissionControl.getInFlightBytes());
+    }
+
+    @Test
+    void rejectedRequestDoesNotHoldInFlightBytes() throws AdmissionRejectedException {
+        final AdmissionControl admissionControl = new AdmissionControl(true, 1, 0, 0, 100, 1, now::get);
+
+        admissionControl.admit("a", 10);
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.admit("a", 10));
+        assertEquals(10, admissionControl.getInFlightBytes());
+    }
+
+    @Test
+    void idleClientsAreEvicted() throws AdmissionRejectedException {
+        final AdmissionControl admissionControl = new AdmissionControl(true, 2, 100, 100, 0, 1, now::get);
+
+        final AdmissionControl.Permit permit = admissionControl.admit("a", 50);
+        admissionControl.evictIdleClients();
+        assertEquals(1, admissionControl.getClientCount());
+
+        permit.release();
+        admissionControl.evictIdleClients();
+        // not idle until its bucket has refilled
+        assertEquals(1, admissionControl.getClientCount());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        admissionControl.evictIdleClients();
+        assertEquals(0, admissionControl.getClientCount());
+    }
+}
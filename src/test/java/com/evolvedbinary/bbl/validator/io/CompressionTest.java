@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CompressionTest {
+
+    private static final byte[] CSV = "c1,c2,c3\nrow,1,row1\nrow,2,row2\n".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void contentEncodings() {
+        assertEquals(Compression.NONE, Compression.fromContentEncoding(null));
+        assertEquals(Compression.NONE, Compression.fromContentEncoding("identity"));
+        assertEquals(Compression.GZIP, Compression.fromContentEncoding("gzip"));
+        assertEquals(Compression.GZIP, Compression.fromContentEncoding("X-GZIP"));
+        assertEquals(Compression.DEFLATE, Compression.fromContentEncoding("deflate"));
+        assertEquals(Compression.ZSTD, Compression.fromContentEncoding("zstd"));
+        assertNull(Compression.fromContentEncoding("br"));
+    }
+
+    @Test
+    void uncompressedIsNotDetected() throws IOException {
+        assertDecompressed(Compression.NONE, CSV);
+    }
+
+    @Test
+    void gzipIsDetected() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CSV);
+        }
+        assertDecompressed(Compression.GZIP, compressed.toByteArray());
+    }
+
+    @Test
+    void zstdIsDetected() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final OutputStream zstd = new ZstdOutputStream(compressed)) {
+            zstd.write(CSV);
+        }
+        assertDecompressed(Compression.ZSTD, compressed.toByteArray());
+    }
+
+    @Test
+    void firstFileOfZipIsRead() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final ZipOutputStream zip = new ZipOutputStream(compressed)) {
+            zip.putNextEntry(new ZipEntry("data/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("data/labels.csv"));
+            zip.write(CSV);
+            zip.closeEntry();
+        }
+        assertDecompressed(Compression.ZIP, compressed.toByteArray());
+    }
+
+    private static void assertDecompressed(final Compression expected, final byte[] content) throws IOException {
+        final InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(content));
+        final Compression compression = Compression.detect(inputStream);
+        assertEquals(expected, compression);
+        try (final InputStream decompressed = compression.decompress(inputStream)) {
+            assertArrayEquals(CSV, decompressed.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Utf8ValidatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void wellFormedFileIsValid() throws IOException {
+        final Path file = tempDir.resolve("valid.csv");
+        Files.writeString(file, "﻿c1,c2,c3\nhéllo,€,𝄞\n", StandardCharsets.UTF_8);
+
+        assertTrue(Utf8Validator.isValid(file));
+    }
+
+    @Test
+    void malformedFileIsNotValid() throws IOException {
+        final Path file = tempDir.resolve("invalid.csv");
+        Files.write(file, new byte[] { 'c', '1', '\n', (byte) 0xE9, 't', 'e', '\n' });
+
+        assertFalse(Utf8Validator.isValid(file));
+    }
+
+    @Test
+    void malformedSequencesAreNotValid() {
+        assertFalse(isValid(0xC0, 0x80));               // overlong
+        assertFalse(isValid(0xE0, 0x80, 0x80));         // overlong
+        assertFalse(isValid(0xED, 0xA0, 0x80));         // surrogate
+        assertFalse(isValid(0xF4, 0x90, 0x80, 0x80));   // above U+10FFFF
+        assertFalse(isValid(0xE2, 0x82));               // truncated
+        assertFalse(isValid(0xFF));
+    }
+
+    @Test
+    void sequenceSplitAcrossBuffersIsValid() {
+        final byte[] euro = "€".getBytes(StandardCharsets.UTF_8);
+        final Utf8Validator validator = new Utf8Validator();
+
+        assertTrue(validator.update(ByteBuffer.wrap(euro, 0, 1)));
+        assertFalse(validator.isComplete());
+        assertTrue(validator.update(ByteBuffer.wrap(euro, 1, 2)));
+        assertTrue(validator.isComplete());
+    }
+
+    @Test
+    void malformedSequencePositionsAreRecorded() {
+        final byte[] content = "c1,c2,c3\nabcdefghijklmnop,éx,?te\n\n12345678\n?".getBytes(StandardCharsets.UTF_8);
+        content[30] = (byte) 0xE9;
+        content[content.length - 1] = (byte) 0xFF;
+
+        final Utf8Validator validator = new Utf8Validator(10);
+        validator.update(ByteBuffer.wrap(content));
+
+        assertFalse(validator.isComplete());
+        assertEquals(List.of(new Utf8Error(30, 2, 21), new Utf8Error(content.length - 1, 5, 1)), validator.getErrors());
+        assertEquals(4, validator.getLineFeeds());
+    }
+
+    @Test
+    void lineFeedsAreCountedAfterMaximumErrors() {
+        final byte[] content = new byte[100];
+        Arrays.fill(content, (byte) 0xFF);
+        for (int i = 0; i < content.length; i += 10) {
+            content[i] = '\n';
+        }
+
+        final Utf8Validator validator = new Utf8Validator(3);
+        assertFalse(validator.update(ByteBuffer.wrap(content)));
+
+        assertEquals(List.of(new Utf8Error(1, 2, 1), new Utf8Error(2, 2, 2), new Utf8Error(3, 2, 3)), validator.getErrors());
+        assertEquals(10, validator.getLineFeeds());
+    }
+
+    private static boolean isValid(final int... bytes) {
+        final byte[] content = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            content[i] = (byte) bytes[i];
+        }
+        final Utf8Validator validator = new Utf8Validator();
+        validator.update(ByteBuffer.wrap(content));
+        return validator.isComplete();
+    }
+}
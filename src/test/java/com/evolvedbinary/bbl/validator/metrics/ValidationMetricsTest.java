@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpParameters;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+public class ValidationMetricsTest {
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Inject
+    EmbeddedServer server;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void validationOfUrlIsRecorded() {
+        final MutableHttpRequest<Void> request = HttpRequest.POST("/validate", null);
+        final MutableHttpParameters params = request.getParameters();
+        params.add("schema-id", "concat");
+        params.add("url", server.getURL() + "/mock-data/concatPass.csv");
+
+        final HttpResponse<String> response = client.toBlocking().exchange(request, String.class);
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        final Timer validationTimer = meterRegistry.find("bbl.validation.duration")
+                .tag("schema", "concat")
+                .tag("mode", "url")
+                .tag("outcome", "passed")
+                .timer();
+        assertNotNull(validationTimer);
+        assertEquals(1, validationTimer.count());
+
+        final Timer downloadTimer = meterRegistry.find("bbl.download.duration")
+                .tag("outcome", "downloaded")
+                .timer();
+        assertNotNull(downloadTimer);
+        assertTrue(downloadTimer.count() >= 1);
+
+        final String prometheus = client.toBlocking().retrieve(HttpRequest.GET("/prometheus"));
+        assertTrue(prometheus.contains("bbl_validation_duration_seconds_count{"));
+        assertTrue(prometheus.contains("bbl_download_duration_seconds_count{"));
+    }
+}
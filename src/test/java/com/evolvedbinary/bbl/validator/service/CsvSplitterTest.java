@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CsvSplitterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void splitsAtRecordBoundaries() throws IOException {
+        final String header = "c1,c2,c3\n";
+        final String rows = "a,b,ab\n" + "\"c\nd\",e,\"c\nde\"\n" + "f,g,fg\n" + "h,i,hi";
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, header + rows);
+
+        final CsvSplitter.Split split = CsvSplitter.split(csvFile, true, 1);
+
+        assertEquals(header.length(), split.headerEnd());
+        assertEquals(4, split.chunks().size());
+        assertEquals(List.of(0, 1, 2, 3), split.chunks().stream().map(CsvSplitter.Chunk::rowsBefore).toList());
+
+        // the quoted line feeds are kept within the second row
+        final Path chunkFile = tempDir.resolve("chunk.csv");
+        CsvSplitter.writeChunk(csvFile, split, split.chunks().get(1), chunkFile);
+        assertEquals(header + "\"c\nd\",e,\"c\nde\"\n", Files.readString(chunkFile));
+
+        CsvSplitter.writeChunk(csvFile, split, split.chunks().get(3), chunkFile);
+        assertEquals(header + "h,i,hi", Files.readString(chunkFile));
+    }
+
+    @Test
+    void splitsWithoutHeader() throws IOException {
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, "a,b,ab\nc,d,cd\ne,f,ef\n");
+
+        final CsvSplitter.Split split = CsvSplitter.split(csvFile, false, 14);
+
+        assertEquals(0, split.headerEnd());
+        assertEquals(2, split.chunks().size());
+        assertEquals(new CsvSplitter.Chunk(0, 14, 0), split.chunks().get(0));
+        assertEquals(new CsvSplitter.Chunk(14, 21, 2), split.chunks().get(1));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CsvStructureScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void countsColumnsOfEachRow() throws IOException {
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, "c1,c2,c3\n" + "a,b,ab\n" + "c,d\r\n" + "\"e,\nf\",g,h\n" + "i\n" + "\n" + "j,k,jk");
+
+        final CsvStructureScanner.Structure structure = CsvStructureScanner.scan(csvFile, ',', true, 3, 5);
+
+        assertEquals(3, structure.headerColumns());
+        assertEquals(6, structure.rows());
+        assertEquals(2, structure.invalidRows());
+        assertEquals(List.of(new CsvStructureScanner.InvalidRow(2, 2), new CsvStructureScanner.InvalidRow(4, 1)),
+                structure.invalidRowExamples());
+        assertEquals(-1, structure.unterminatedQuoteRow());
+        assertEquals(1, structure.crlfRows());
+        assertEquals(5, structure.lfRows());
+        assertTrue(structure.hasMixedLineEndings());
+    }
+
+    @Test
+    void findsUnterminatedQuote() throws IOException {
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, "a;b;ab\n" + "c;\"d;cd\n" + "e;f;ef\n");
+
+        final CsvStructureScanner.Structure structure = CsvStructureScanner.scan(csvFile, ';', false, -1, 5);
+
+        assertEquals(-1, structure.headerColumns());
+        assertEquals(2, structure.rows());
+        assertEquals(0, structure.invalidRows());
+        assertEquals(2, structure.unterminatedQuoteRow());
+        assertFalse(structure.hasMixedLineEndings());
+    }
+
+    @Test
+    void splitsInTheSamePass() throws IOException {
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, "c1,c2,c3\n" + "a,b,ab\n" + "\"c\nd\",e,\"c\nde\"\n" + "f,g,fg\n" + "h,i,hi");
+
+        final CsvSplitter.Scanner splitter = new CsvSplitter.Scanner(true, 1);
+        final CsvStructureScanner.Structure structure = CsvStructureScanner.scan(csvFile, ',', true, 3, 5, splitter);
+
+        assertEquals(4, structure.rows());
+        assertEquals(CsvSplitter.split(csvFile, true, 1), splitter.split());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.evolvedbinary.bbl.validator.dto.ValidationFailure;
+import com.evolvedbinary.bbl.validator.io.Utf8Error;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+@Property(name = "validation.parallel.min-size", value = "1")
+@Property(name = "validation.parallel.chunk-size", value = "64")
+public class CsvValidationServiceTest {
+
+    @Inject
+    CsvValidationService csvValidationService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void validateInParallelChunks() throws IOException {
+        final Set<Integer> failingRows = Set.of(7, 23, 41);
+        final StringBuilder csvContent = new StringBuilder("c1,c2,c3\n");
+        for (int row = 1; row <= 50; row++) {
+            csvContent.append("a,b,").append(failingRows.contains(row) ? "x" + row : "ab").append('\n');
+        }
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, csvContent);
+
+        final CsvValidationService.ValidationResult result = csvValidationService.validateCsvFile(csvFile, "concat", csvValidationService.resolveOptions(null, null));
+
+        assertFalse(result.isPassed());
+        assertTrue(result.isUtf8Valid());
+        assertFalse(result.isTruncated());
+
+        final List<ValidationFailure> failures = result.getFailures();
+        assertEquals(List.of(7, 23, 41), failures.stream().map(ValidationFailure::getLine).toList());
+        for (final ValidationFailure failure : failures) {
+            assertEquals(3, failure.getColumn());
+            assertTrue(failure.getMessage().contains("row: " + failure.getLine() + ","));
+        }
+    }
+
+    @Test
+    void rejectBrokenStructure() throws IOException {
+        final StringBuilder csvContent = new StringBuilder("c1,c2,c3\n");
+        for (int row = 1; row <= 50; row++) {
+            csvContent.append(row % 10 == 0 ? "a,b,ab\n" : "a,b\n");
+        }
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, csvContent);
+
+        final CsvValidationService.ValidationResult result = csvValidationService.validateCsvFile(csvFile, "concat", csvValidationService.resolveOptions(null, null));
+
+        assertFalse(result.isPassed());
+        assertFalse(result.isTruncated());
+
+        // a single summary, rather than a failure for each row
+        final List<ValidationFailure> failures = result.getFailures();
+        assertEquals(1, failures.size());
+        assertEquals(1, failures.getFirst().getLine());
+        assertEquals("[Structure Error] Expected @totalColumns of 3 and found a different number in 45 of 50 rows, e.g. 2 in row: 1, 2 in row: 2, 2 in row: 3, 2 in row: 4, 2 in row: 5",
+                failures.getFirst().getMessage());
+    }
+
+    @Test
+    void rejectBrokenStructureOfNonUtf8File() throws IOException {
+        final ByteArrayOutputStream csvContent = new ByteArrayOutputStream();
+        csvContent.writeBytes("c1,c2,c3\n".getBytes(StandardCharsets.UTF_8));
+        csvContent.writeBytes(new byte[] { 'a', ',', (byte) 0xFF, '\n' });
+        for (int row = 2; row <= 10; row++) {
+            csvContent.writeBytes("a,b\n".getBytes(StandardCharsets.UTF_8));
+        }
+        final Path csvFile = tempDir.resolve("test.csv");
+        Files.write(csvFile, csvContent.toByteArray());
+
+        // whose encoding is not known
+        final CsvValidationService.ValidationResult unchecked = csvValidationService.validateCsvFile(csvFile, "concat", csvValidationService.resolveOptions(null, null));
+        assertFalse(unchecked.isPassed());
+        assertFalse(unchecked.isUtf8Valid());
+        assertTrue(unchecked.getFailures().getFirst().getMessage().startsWith("[Structure Error]"));
+
+        // whose encoding was checked as it was spooled
+        final SpooledFile spooled = new SpooledFile(csvFile, csvContent.size(), "0", 11, List.of(new Utf8Error(13, 2, 3)));
+        final CsvValidationService.ValidationResult checked = csvValidationService.validateCsvFile(spooled, "concat", csvValidationService.resolveOptions(null, null));
+        assertFalse(checked.isPassed());
+        assertFalse(checked.isUtf8Valid());
+        assertTrue(checked.getFailures().getFirst().getMessage().startsWith("[Structure Error]"));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MicronautTest
+@Property(name = "download.max-size", value = "16")
+public class DownloadLimitTest {
+
+    @Inject
+    FileDownloadService fileDownloadService;
+
+    @Inject
+    EmbeddedServer server;
+
+    @Test
+    void downloadLargerThanMaximumIsRejected() {
+        final String url = server.getURL() + "/mock-data/concatFail.csv";
+
+        final FileTooLargeException e = assertThrows(FileTooLargeException.class, () -> fileDownloadService.downloadToTemp(url));
+        assertEquals(16, e.getMaxSize());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@MicronautTest
+public class FileDownloadServiceTest {
+
+    @Inject
+    FileDownloadService fileDownloadService;
+
+    @Inject
+    DownloadCache downloadCache;
+
+    @Inject
+    EmbeddedServer server;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    /**
+     * A conditional request made to the stub server, and the status it was answered with.
+     */
+    private record ConditionalRequest(String ifNoneMatch, String ifModifiedSince, int status) {
+    }
+
+    @Test
+    void unchangedDownloadIsReused() throws IOException {
+        final String etag = "\"concat-v1\"";
+        final String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        final byte[] content = "c1,c2,c3\nunchanged,download,unchangeddownload\n".getBytes(StandardCharsets.UTF_8);
+
+        // a stub server which answers a request for its current ETag with 304 Not Modified
+        final List<ConditionalRequest> requests = new CopyOnWriteArrayList<>();
+        final HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/unchanged.csv", exchange -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            final String ifModifiedSince = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE);
+            final int status = etag.equals(ifNoneMatch) ? HttpURLConnection.HTTP_NOT_MODIFIED : HttpURLConnection.HTTP_OK;
+            requests.add(new ConditionalRequest(ifNoneMatch, ifModifiedSince, status));
+            respond(exchange, status, etag, lastModified, content);
+        });
+        stub.start();
+        try {
+            final String url = "http://localhost:" + stub.getAddress().getPort() + "/unchanged.csv";
+            final double notModifiedBefore = notModifiedDownloads();
+
+            final SpooledFile first = fileDownloadService.downloadToTemp(url);
+            try {
+                final DownloadCache.Entry cached = downloadCache.get(url);
+                assertNotNull(cached);
+                assertEquals(first.sha256(), cached.sha256());
+
+                final SpooledFile second = fileDownloadService.downloadToTemp(url);
+                try {
+                    assertNotEquals(first.path(), second.path());
+                    assertEquals(first.size(), second.size());
+                    assertEquals(first.sha256(), second.sha256());
+                    assertArrayEquals(content, Files.readAllBytes(second.path()));
+                } finally {
+                    Files.delete(second.path());
+                }
+            } finally {
+                Files.delete(first.path());
+            }
+
+            assertEquals(List.of(
+                    new ConditionalRequest(null, null, HttpURLConnection.HTTP_OK),
+                    new ConditionalRequest(etag, lastModified, HttpURLConnection.HTTP_NOT_MODIFIED)), requests);
+            assertEquals(notModifiedBefore + 1, notModifiedDownloads());
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String etag, final String lastModified,
+            final byte[] content) throws IOException {
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, etag);
+        exchange.getResponseHeaders().set(HttpHeaders.LAST_MODIFIED, lastModified);
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "text/csv");
+        exchange.sendResponseHeaders(status, content.length);
+        try (final OutputStream body = exchange.getResponseBody()) {
+            body.write(content);
+        }
+    }
+
+    private double notModifiedDownloads() {
+        final Timer timer = meterRegistry.find("bbl.download.duration")
+                .tag("outcome", "not_modified")
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    @Test
+    void downloadProgressIsReported() throws IOException {
+        final String url = server.getURL() + "/mock-data/concatPass.csv";
+
+        final DownloadProgress progress = new DownloadProgress();
+        final SpooledFile spooled = fileDownloadService.downloadToTemp(url, progress);
+        try {
+            assertEquals(spooled.size(), progress.getBytesReceived());
+        } finally {
+            Files.delete(spooled.path());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@MicronautTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SchemaReloadTest implements TestPropertyProvider {
+
+    private static final String METADATA = """
+            {
+              "id": "%s",
+              "name": "%s",
+              "version": "1.0.0",
+              "date": "2025-01-01",
+              "url": "https://localhost/%s.csvs",
+              "description": "schema added whilst running"
+            }
+            """;
+
+    private static final String SCHEMA = """
+            version 1.1
+            @totalColumns %d
+            """;
+
+    @Inject
+    SchemaService schemaService;
+
+    private Path schemaDirectory;
+
+    @Override
+    public Map<String, String> getProperties() {
+        try {
+            schemaDirectory = Files.createTempDirectory("schemas");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Map.of(
+                "schema.directory", schemaDirectory.toString(),
+                "schema.watch.debounce", "50ms");
+    }
+
+    @AfterEach
+    void removeSchemas() throws IOException {
+        try (final Stream<Path> paths = Files.list(schemaDirectory)) {
+            for (final Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+        schemaService.reload();
+    }
+
+    @Test
+    void addedSchemaIsLoaded() throws IOException {
+        assertNull(schemaService.getCompiledSchema("added"));
+
+        writeSchema("added", 3);
+        schemaService.reload();
+
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema("added");
+        assertNotNull(compiledSchema);
+        assertEquals(3, compiledSchema.getTotalColumns());
+        assertNotNull(schemaService.getSchemaInfo("added"));
+        assertEquals(1, schemaService.listSchemas().size());
+    }
+
+    @Test
+    void changedSchemaIsRecompiled() throws IOException {
+        writeSchema("changed", 3);
+        schemaService.reload();
+        final CompiledSchema before = schemaService.getCompiledSchema("changed");
+
+        schemaService.reload();
+        assertSame(before, schemaService.getCompiledSchema("changed"));
+
+        writeSchema("changed", 4);
+        schemaService.reload();
+        final CompiledSchema after = schemaService.getCompiledSchema("changed");
+        assertNotSame(before, after);
+        assertEquals(4, after.getTotalColumns());
+    }
+
+    @Test
+    void deletedSchemaIsUnloaded() throws IOException {
+        writeSchema("deleted", 3);
+        schemaService.reload();
+        assertNotNull(schemaService.getCompiledSchema("deleted"));
+
+        Files.delete(schemaDirectory.resolve("deleted.json"));
+        schemaService.reload();
+        assertNull(schemaService.getCompiledSchema("deleted"));
+        assertNull(schemaService.getSchemaInfo("deleted"));
+    }
+
+    @Test
+    void unreadableSchemaKeepsPreviousVersion() throws IOException {
+        writeSchema("partial", 3);
+        schemaService.reload();
+
+        // as if part way through being written
+        Files.writeString(schemaDirectory.resolve("partial.json"), "{ \"id\": ");
+        schemaService.reload();
+
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema("partial");
+        assertNotNull(compiledSchema);
+        assertEquals(3, compiledSchema.getTotalColumns());
+    }
+
+    @Test
+    void addedSchemaIsLoadedByWatcher() throws IOException, InterruptedException {
+        writeSchema("watched", 3);
+
+        // some platforms poll for changes, rather than being notified of them
+        final long deadline = System.currentTimeMillis() + 30_000;
+        while (schemaService.getCompiledSchema("watched") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNotNull(schemaService.getCompiledSchema("watched"));
+    }
+
+    private void writeSchema(final String id, final int totalColumns) throws IOException {
+        Files.writeString(schemaDirectory.resolve(id + ".csvs"), SCHEMA.formatted(totalColumns));
+        Files.writeString(schemaDirectory.resolve(id + ".json"), METADATA.formatted(id, id, id));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+public class SchemaServiceTest {
+
+    @Inject
+    SchemaService schemaService;
+
+    @Test
+    void compiledSchemaIsAvailable() {
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema("concat");
+        assertNotNull(compiledSchema);
+
+        assertEquals("concat", compiledSchema.getId());
+        assertEquals("1.1", compiledSchema.getSchemaVersion());
+        assertEquals(3, compiledSchema.getTotalColumns());
+        assertFalse(compiledSchema.isNoHeader());
+        assertEquals(',', compiledSchema.getSeparator());
+        assertEquals(List.of("c1", "c2", "c3"), compiledSchema.getColumnNames());
+        assertEquals("is(concat($c1,$c2))", compiledSchema.getColumnRules().get("c3"));
+        assertTrue(compiledSchema.isRowLocal());
+
+        assertEquals(64, compiledSchema.getContentHash().length());
+        assertTrue(compiledSchema.getCacheKey().startsWith("concat@"));
+    }
+
+    @Test
+    void engineReadsContentAddressedSchemaFile() throws IOException {
+        final CompiledSchema compiledSchema = schemaService.getCompiledSchema("concat");
+
+        // the engine reads a copy named by its content hash, not the schema file which may change
+        final Path schemaFile = Path.of(compiledSchema.getSchemaFile());
+        assertNotEquals(compiledSchema.getSchemaFilePath(), schemaFile);
+        assertEquals(compiledSchema.getContentHash() + ".csvs", schemaFile.getFileName().toString());
+        assertEquals(compiledSchema.getContent(), Files.readString(schemaFile));
+    }
+
+    @Test
+    void compiledSchemaWithCrossRowRulesIsNotRowLocal() {
+        final String content = "version 1.1\n@totalColumns 2\nid: unique\nname: regex(\"^unique$\")\n";
+        assertFalse(CompiledSchema.compile("unique", Path.of("unique.csvs"), content).isRowLocal());
+
+        final String quotedContent = "version 1.1\n@totalColumns 2\nid: positiveInteger\nname: regex(\"^unique$\")\n";
+        assertTrue(CompiledSchema.compile("quoted", Path.of("quoted.csvs"), quotedContent).isRowLocal());
+    }
+
+    @Test
+    void compiledSchemaIsReused() {
+        assertSame(schemaService.getCompiledSchema("concat"), schemaService.getCompiledSchema("concat"));
+        assertEquals(schemaService.getCompiledSchema("concat").getContent(), schemaService.getSchema("concat"));
+    }
+
+    @Test
+    void compiledSchemaForNonExistingSchema() {
+        assertNull(schemaService.getCompiledSchema("nonExistingSchema"));
+    }
+}
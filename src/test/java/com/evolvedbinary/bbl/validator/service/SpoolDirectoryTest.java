@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2025 Evolved Binary Ltd. (tech@evolvedbinary.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.evolvedbinary.bbl.validator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpoolDirectoryTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void abandonedDirectoriesAreRemovedAtStartup() throws IOException {
+        final Path abandoned = Files.createDirectories(root.resolve("disk").resolve("instance-abandoned"));
+        Files.createFile(abandoned.resolve(".lock"));
+        Files.writeString(abandoned.resolve("orphan.csv"), "c1,c2,c3\n");
+
+        final SpoolDirectory running = spoolDirectory(0, Duration.ZERO);
+        try {
+            assertFalse(Files.exists(abandoned));
+
+            // the directory of an instance which is still running is kept
+            final SpoolDirectory other = spoolDirectory(0, Duration.ZERO);
+            try {
+                assertNotEquals(running.getDirectory(), other.getDirectory());
+                assertTrue(Files.exists(running.getDirectory()));
+            } finally {
+                other.close();
+            }
+        } finally {
+            running.close();
+        }
+        assertFalse(Files.exists(running.getDirectory()));
+    }
+
+    @Test
+    void quotaIsEnforced() throws IOException {
+        final SpoolDirectory spoolDirectory = spoolDirectory(100, Duration.ofMillis(50));
+        try {
+            final Path first = write(spoolDirectory, 60);
+            final Path second = spoolDirectory.newFile();
+            final SpoolFullException e = assertThrows(SpoolFullException.class, () -> spoolDirectory.reserve(second, 60));
+            assertEquals(100, e.getMaxSize());
+            assertEquals(5, e.getRetryAfter());
+
+            spoolDirectory.delete(first);
+            assertEquals(0, spoolDirectory.getTotalSize());
+
+            // a single file larger than the quota is allowed when nothing else is spooled
+            spoolDirectory.reserve(second, 60);
+            spoolDirectory.reserve(second, 60);
+            assertEquals(120, spoolDirectory.getTotalSize());
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    @Test
+    void writerWaitsForSpace() throws Exception {
+        final SpoolDirectory spoolDirectory = spoolDirectory(100, Duration.ofSeconds(30));
+        try {
+            final Path first = write(spoolDirectory, 60);
+            final Path second = spoolDirectory.newFile();
+            final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+                try {
+                    spoolDirectory.reserve(second, 60);
+                } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+
+            spoolDirectory.delete(first);
+            waiting.get(10, TimeUnit.SECONDS);
+            assertEquals(60, spoolDirectory.getTotalSize());
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    @Test
+    void growingWriterDoesNotWait() throws IOException {
+        final SpoolDirectory spoolDirectory = spoolDirectory(100, Duration.ofSeconds(30));
+        try {
+            write(spoolDirectory, 40);
+            final Path second = spoolDirectory.newFile();
+            spoolDirectory.reserve(second, 40);
+
+            // already holding space, so it fails at once rather than waiting for the first file
+            final long startTime = System.nanoTime();
+            assertThrows(SpoolFullException.class, () -> spoolDirectory.reserve(second, 40));
+            assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(10));
+
+            // space reserved but not used is freed once the file is written
+            spoolDirectory.settle(second, 10);
+            assertEquals(50, spoolDirectory.getTotalSize());
+
+            // optional files are only reserved when there is room for them now
+            assertFalse(spoolDirectory.tryReserve(spoolDirectory.newFile(), 60));
+            assertTrue(spoolDirectory.tryReserve(spoolDirectory.newFile(), 50));
+            assertEquals(100, spoolDirectory.getTotalSize());
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    @Test
+    void smallFilesAreSpooledToMemory() {
+        final SpoolDirectory spoolDirectory = spoolDirectory(0, Duration.ZERO);
+        try {
+            assertEquals(40, spoolDirectory.getSmallFileMaxSize());
+
+            final Path first = spoolDirectory.newMemoryFile(40);
+            assertNotNull(first);
+            assertTrue(first.startsWith(root.resolve("memory")));
+            assertNotNull(spoolDirectory.newMemoryFile(40));
+            assertEquals(80, spoolDirectory.getMemorySize());
+            assertEquals(0, spoolDirectory.getTotalSize());
+
+            // too large, or no room left, so to be spooled to disk instead
+            assertNull(spoolDirectory.newMemoryFile(41));
+            assertNull(spoolDirectory.newMemoryFile(30));
+
+            spoolDirectory.delete(first);
+            assertEquals(40, spoolDirectory.getMemorySize());
+            assertNotNull(spoolDirectory.newMemoryFile(30));
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    @Test
+    void orphansAreSwept() throws IOException {
+        final SpoolDirectory spoolDirectory = spoolDirectory(0, Duration.ZERO);
+        try {
+            // a file which holds no reservation, e.g. one left by a writer which failed
+            final Path orphan = spoolDirectory.newFile();
+            Files.write(orphan, new byte[10]);
+            Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+            final Path recent = spoolDirectory.newFile();
+            Files.write(recent, new byte[10]);
+
+            spoolDirectory.sweep();
+
+            assertFalse(Files.exists(orphan));
+            assertTrue(Files.exists(recent));
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    @Test
+    void reservedFilesAreNotSwept() throws IOException {
+        final SpoolDirectory spoolDirectory = spoolDirectory(0, Duration.ZERO);
+        try {
+            // e.g. a slow upload, or a long validation
+            final Path live = write(spoolDirectory, 10);
+            Files.setLastModifiedTime(live, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+            spoolDirectory.sweep();
+
+            assertTrue(Files.exists(live));
+            assertEquals(10, spoolDirectory.getTotalSize());
+
+            spoolDirectory.delete(live);
+            assertEquals(0, spoolDirectory.getTotalSize());
+        } finally {
+            spoolDirectory.close();
+        }
+    }
+
+    private SpoolDirectory spoolDirectory(final long maxSize, final Duration quotaWait) {
+        return new SpoolDirectory(root.resolve("disk").toString(), maxSize, quotaWait, Duration.ofHours(1), 5,
+                true, root.resolve("memory").toString(), 100, 40);
+    }
+
+    private static Path write(final SpoolDirectory spoolDirectory, final int size) throws IOException {
+        final Path file = spoolDirectory.newFile();
+        spoolDirectory.reserve(file, size);
+        Files.write(file, new byte[size]);
+        return file;
+    }
+}